@@ -0,0 +1,46 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private UseBalance.Response useBalanceResponse;
+    private QueryTransactionResponse queryTransactionResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        TransactionDto transactionDto = TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId("0123456789abcdef0123456789abcdef")
+                .transactedAt(LocalDateTime.now())
+                .build();
+        useBalanceResponse = UseBalance.Response.fromDto(transactionDto);
+        queryTransactionResponse = QueryTransactionResponse.from(transactionDto);
+    }
+
+    @Benchmark
+    public byte[] useBalanceResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(useBalanceResponse);
+    }
+
+    @Benchmark
+    public byte[] queryTransactionResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(queryTransactionResponse);
+    }
+}
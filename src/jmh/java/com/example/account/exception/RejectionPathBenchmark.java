@@ -0,0 +1,74 @@
+package com.example.account.exception;
+
+import com.example.account.dto.ErrorResponse;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔액 부족 같은 업무 거절이 예외 생성부터 ErrorResponse 까지 가는 비용.
+ * stackTrace 를 채우고 요청마다 error 로그를 남기던 기존 방식(baseline)과 비교한다.
+ * baseline 은 기존 handler 와 같은 logger 로 같은 로그를 남기고 같은 metric 을 기록한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RejectionPathBenchmark {
+    private static final Logger handlerLog = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private GlobalExceptionHandler handler;
+    private AccountMetrics accountMetrics;
+    private HttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        accountMetrics = new AccountMetrics(new SimpleMeterRegistry());
+        handler = new GlobalExceptionHandler(10, accountMetrics);
+        request = (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> null);
+    }
+
+    @Benchmark
+    public ErrorResponse rejection() {
+        try {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        } catch (AccountException e) {
+            return handler.handle(e, request);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ErrorResponse rejectionContended() {
+        return rejection();
+    }
+
+    @Benchmark
+    public ErrorResponse baselineWithStackTrace() {
+        try {
+            throw new StackfulException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        } catch (StackfulException e) {
+            handlerLog.error("{} is occured", e.errorCode.getDescription());
+            accountMetrics.countError(e.errorCode);
+            request.setAttribute(AccountMetrics.ERROR_CODE_ATTRIBUTE, e.errorCode.name());
+            return new ErrorResponse(e.errorCode, e.errorCode.getDescription());
+        }
+    }
+
+    private static class StackfulException extends RuntimeException {
+        private final ErrorCode errorCode;
+
+        StackfulException(ErrorCode errorCode) {
+            this.errorCode = errorCode;
+        }
+    }
+}
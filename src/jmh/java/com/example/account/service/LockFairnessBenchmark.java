@@ -0,0 +1,117 @@
+package com.example.account.service;
+
+import com.example.account.config.LockProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 일부 계좌에 요청이 몰릴 때 일반 lock 과 fair lock 의 대기 시간 분포와 timeout 비율을 비교한다.
+ * SampleTime 결과의 p0.99 가 꼬리 지연이고, Throughput 결과의 timeout / acquired 비율이 timeout 비율이다.
+ * 예) ./gradlew jmh -Pjmh.includes=LockFairnessBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class LockFairnessBenchmark {
+    private static final int REDIS_PORT = 16381;
+    private static final int ACCOUNTS = 100;
+
+    @Param({"STANDARD", "FAIR"})
+    private LockMode mode;
+
+    // 전체 요청 중 가장 hot 한 계좌로 가는 비율
+    @Param({"0.5"})
+    private double hotRatio;
+
+    // lock 을 잡고 있는 시간. 실제 거래의 DB 처리 시간을 흉내 낸다.
+    @Param({"2"})
+    private long holdMillis;
+
+    @Param({"200"})
+    private long waitMillis;
+
+    // 0 이면 대기열 길이를 제한하지 않는다.
+    @Param({"0", "16"})
+    private int maxWaiters;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private LockService lockService;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long acquired;
+        public long timeout;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            acquired = 0;
+            timeout = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer()
+                .setAddress("redis://127.0.0.1:" + REDIS_PORT)
+                .setConnectionPoolSize(64);
+        redissonClient = Redisson.create(config);
+
+        LockProperties lockProperties = new LockProperties();
+        lockProperties.setWaitMillis(waitMillis);
+        lockProperties.setMaxWaiters(maxWaiters);
+        lockService = new LockService(redissonClient, lockProperties, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public void lockUnderSkew(Outcomes outcomes) {
+        String accountNumber = nextAccountNumber();
+        try {
+            lockService.lock(accountNumber, mode);
+        } catch (AccountException e) {
+            if (e.getErrorCode() == ErrorCode.ACCOUNT_LOCK_QUEUE_FULL) {
+                outcomes.rejected++;
+            } else {
+                outcomes.timeout++;
+            }
+            return;
+        }
+        try {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(holdMillis));
+            outcomes.acquired++;
+        } finally {
+            lockService.unLock(accountNumber, mode);
+        }
+    }
+
+    private String nextAccountNumber() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int account = random.nextDouble() < hotRatio ? 0 : 1 + random.nextInt(ACCOUNTS - 1);
+        return String.valueOf(1000000000L + account);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.account.service;
+
+import com.example.account.AccountApplication;
+import com.example.account.dto.TransactionDto;
+import com.example.account.type.LockMode;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 계좌에 요청이 몰릴 때 검증까지 lock 안에서 하던 이전 흐름(LOCK_ALL)과
+ * 검증을 lock 밖으로 뺀 흐름(PRE_VALIDATE)의 lock 보유 시간과 처리량을 비교한다.
+ * lock 보유 시간은 trial 이 끝날 때 평균과 p99 를 출력한다.
+ * LOCK_ALL 은 service 의 @AccountLock 을 거치지 않고 같은 계좌 lock 하나만 잡은 채 검증과 출금을
+ * 한 트랜잭션에서 실행해서, 이전 흐름처럼 lock 을 한 번만 잡는다.
+ * 예) ./gradlew jmh -Pjmh.includes=LockHoldTimeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class LockHoldTimeBenchmark {
+    private static final long USER_ID = 1L;
+    private static final long AMOUNT = 1L;
+
+    public enum Flow {LOCK_ALL, PRE_VALIDATE}
+
+    @Param({"LOCK_ALL", "PRE_VALIDATE"})
+    private Flow flow;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionService unlockedTransactionService;
+    private TransactionTemplate transactionTemplate;
+    private ShardRouter shardRouter;
+    private LockService lockService;
+    private String accountNumber;
+    private Timer holdTimer;
+    private SimpleMeterRegistry holdRegistry;
+    private MeterRegistry meterRegistry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // properties() 는 application.yml 보다 우선순위가 낮으므로 실행 인자로 덮어쓴다.
+        context = new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.redis.port=16381",
+                        "--account.bloom-filter.enabled=false",
+                        // lock 대기 timeout 으로 측정이 실패하지 않도록 충분히 기다린다.
+                        "--account.lock.wait-millis=60000",
+                        // LockAopAspect 의 timer 는 context 가 뜰 때 만들어지므로 percentile 을 설정으로 켠다.
+                        "--management.metrics.distribution.percentiles.account.lock.hold=0.5,0.99",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        lockService = context.getBean(LockService.class);
+        unlockedTransactionService = (TransactionService) AopProxyUtils.getSingletonTarget(transactionService);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        shardRouter = context.getBean(ShardRouter.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(USER_ID, 1_000_000_000_000L)
+                .getAccountNumber();
+
+        // PRE_VALIDATE 는 LockAopAspect 가 남기는 보유 시간을, LOCK_ALL 은 바깥 lock 의 보유 시간을 읽는다.
+        holdRegistry = new SimpleMeterRegistry();
+        holdRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.99)
+                        .build()
+                        .merge(config);
+            }
+        });
+        holdTimer = Timer.builder("benchmark.lock.hold").register(holdRegistry);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Timer timer = flow == Flow.LOCK_ALL
+                ? holdTimer
+                : meterRegistry.find("account.lock.hold").tag("mode", LockMode.STANDARD.name()).timer();
+        if (timer != null) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            StringBuilder percentiles = new StringBuilder();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.append(String.format(" p%s=%.1fus",
+                        value.percentile() * 100, value.value(TimeUnit.MICROSECONDS)));
+            }
+            System.out.printf("%nflow=%s lock hold count=%d mean=%.1fus%s%n",
+                    flow, snapshot.count(), snapshot.mean(TimeUnit.MICROSECONDS), percentiles);
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance() {
+        if (flow == Flow.PRE_VALIDATE) {
+            transactionService.validateUseBalance(USER_ID, accountNumber, AMOUNT);
+            return transactionService.useBalance(accountNumber, AMOUNT);
+        }
+
+        // 이전 controller 의 @AccountLock 처럼 검증부터 lock 안에서 한다. lock 은 이것 하나뿐이다.
+        lockService.lock(accountNumber);
+        long acquired = System.nanoTime();
+        try {
+            return shardRouter.onShard(shardRouter.shardOf(accountNumber), () ->
+                    transactionTemplate.execute(status -> {
+                        unlockedTransactionService.validateUseBalance(USER_ID, accountNumber, AMOUNT);
+                        return unlockedTransactionService.useBalance(accountNumber, AMOUNT);
+                    }));
+        } finally {
+            lockService.unLock(accountNumber);
+            holdTimer.record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+        }
+    }
+}
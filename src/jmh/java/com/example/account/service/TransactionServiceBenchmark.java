@@ -0,0 +1,61 @@
+package com.example.account.service;
+
+import com.example.account.AccountApplication;
+import com.example.account.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H2 에 대해 TransactionService 의 잔액 사용/취소 비용을 측정한다.
+ * 검증은 lock 없이, 잔액 변경은 service 의 @AccountLock 안에서 하므로 Redis lock 왕복도 함께 측정된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionServiceBenchmark {
+    private static final long USER_ID = 1L;
+    private static final long AMOUNT = 100L;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.redis.port=16381",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(USER_ID, 1_000_000_000_000L)
+                .getAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance() {
+        transactionService.validateUseBalance(USER_ID, accountNumber, AMOUNT);
+        return transactionService.useBalance(accountNumber, AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionDto useAndCancelBalance() {
+        transactionService.validateUseBalance(USER_ID, accountNumber, AMOUNT);
+        TransactionDto used = transactionService.useBalance(accountNumber, AMOUNT);
+        transactionService.validateCancelBalance(used.getTransactionId(), accountNumber, AMOUNT);
+        return transactionService.cancelBalance(accountNumber, AMOUNT);
+    }
+}
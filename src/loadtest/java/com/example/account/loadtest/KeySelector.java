@@ -0,0 +1,39 @@
+package com.example.account.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 대상 계좌를 고르는 분포. uniform 은 모든 계좌를 같은 확률로,
+ * zipf 는 순위 k 의 계좌를 1/k^s 에 비례하는 확률로 고른다(s 가 클수록 hot 계좌에 몰린다).
+ */
+public class KeySelector {
+    private final double[] cumulative;
+
+    private KeySelector(double[] cumulative) {
+        this.cumulative = cumulative;
+    }
+
+    public static KeySelector uniform(int size) {
+        return zipf(size, 0.0);
+    }
+
+    public static KeySelector zipf(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return new KeySelector(cumulative);
+    }
+
+    public int next() {
+        double value = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cumulative, value);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.account.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * endpoint 별, endpoint + 결과(ErrorCode) 별 응답 시간 분포를 모은다.
+ * 시간은 요청을 보냈어야 할 시각부터 측정하므로 coordinated omission 이 보정된다.
+ */
+public class LatencyRecorder {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, Histogram> byEndpoint = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> byOutcome = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, String outcome, long latencyNanos) {
+        long value = Math.min(Math.max(latencyNanos, 1L), MAX_LATENCY_NANOS);
+        byEndpoint.computeIfAbsent(endpoint, key -> newHistogram()).recordValue(value);
+        byOutcome.computeIfAbsent(endpoint + " " + outcome, key -> newHistogram()).recordValue(value);
+    }
+
+    public void print(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        out.printf("%-40s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint / outcome", "count", "req/s", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(byEndpoint).entrySet()) {
+            print(out, entry.getKey(), entry.getValue(), seconds);
+            for (Map.Entry<String, Histogram> outcome : new TreeMap<>(byOutcome).entrySet()) {
+                if (outcome.getKey().startsWith(entry.getKey() + " ")) {
+                    print(out, "  " + outcome.getKey().substring(entry.getKey().length() + 1),
+                            outcome.getValue(), seconds);
+                }
+            }
+        }
+    }
+
+    private void print(PrintStream out, String name, Histogram histogram, double seconds) {
+        out.printf("%-40s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                toMillis(histogram.getValueAtPercentile(50.0)),
+                toMillis(histogram.getValueAtPercentile(99.0)),
+                toMillis(histogram.getValueAtPercentile(99.9)),
+                toMillis(histogram.getMaxValue()));
+    }
+
+    private double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private Histogram newHistogram() {
+        return new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    }
+}
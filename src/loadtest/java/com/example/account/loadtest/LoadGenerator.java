@@ -0,0 +1,234 @@
+package com.example.account.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 로컬 서버에 고정된 도착률(open-loop)로 요청을 보내고 endpoint / ErrorCode 별 지연 시간을 출력한다.
+ *
+ * <pre>
+ * loadtest.baseUrl       대상 서버 (기본 http://localhost:8080)
+ * loadtest.rate          초당 요청 수 (기본 200)
+ * loadtest.duration      측정 시간(초) (기본 30)
+ * loadtest.accounts      부하용으로 만들 계좌 수 (기본 10, data.sql 사용자 3명 x 최대 10개)
+ * loadtest.users         계좌를 나눠 가질 사용자 수 (기본 3)
+ * loadtest.skew          uniform | zipf (기본 uniform)
+ * loadtest.zipfExponent  zipf 지수 (기본 1.0)
+ * loadtest.mix           use,cancel,query,account 비율 (기본 60,20,10,10)
+ * loadtest.maxInFlight   동시에 처리 중인 요청 상한, 넘으면 DROPPED 로 기록 (기본 10000)
+ * </pre>
+ */
+public class LoadGenerator {
+    private static final long INITIAL_BALANCE = 1_000_000_000L;
+    private static final long AMOUNT = 100L;
+    private static final int RECENT_TRANSACTIONS = 1024;
+
+    private final String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+    private final int rate = Integer.getInteger("loadtest.rate", 200);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+    private final int accountCount = Integer.getInteger("loadtest.accounts", 10);
+    private final int userCount = Integer.getInteger("loadtest.users", 3);
+    private final int maxInFlight = Integer.getInteger("loadtest.maxInFlight", 10_000);
+    private final int[] mix = parseMix(System.getProperty("loadtest.mix", "60,20,10,10"));
+    private final KeySelector keySelector = "zipf".equalsIgnoreCase(System.getProperty("loadtest.skew"))
+            ? KeySelector.zipf(accountCount, Double.parseDouble(System.getProperty("loadtest.zipfExponent", "1.0")))
+            : KeySelector.uniform(accountCount);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final List<Long> accountOwners = new ArrayList<>();
+    private final BlockingQueue<String[]> cancelable = new LinkedBlockingQueue<>();
+    private final AtomicReferenceArray<String> recentTransactions = new AtomicReferenceArray<>(RECENT_TRANSACTIONS);
+    private final AtomicInteger recentIndex = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator().run();
+    }
+
+    private void run() throws Exception {
+        createAccounts();
+        System.out.printf("Driving %s at %d req/s for %ds over %d accounts%n",
+                baseUrl, rate, durationSeconds, accountNumbers.size());
+
+        long intervalNanos = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long next = start;
+        while (next < end) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            // 보낼 시각이 이미 지났어도 건너뛰지 않고 예정 시각 기준으로 지연을 잰다.
+            fire(next);
+            next += intervalNanos;
+        }
+
+        while (inFlight.get() > 0) {
+            Thread.sleep(10L);
+        }
+        recorder.print(System.out, System.nanoTime() - start);
+        System.exit(0);
+    }
+
+    private void fire(long intendedStart) {
+        int pick = ThreadLocalRandom.current().nextInt(mix[0] + mix[1] + mix[2] + mix[3]);
+        int index = keySelector.next();
+
+        if (inFlight.get() >= maxInFlight) {
+            recorder.record(endpointName(pick), "DROPPED", System.nanoTime() - intendedStart);
+            return;
+        }
+
+        if (pick < mix[0]) {
+            use(index, intendedStart);
+        } else if (pick < mix[0] + mix[1]) {
+            cancel(index, intendedStart);
+        } else if (pick < mix[0] + mix[1] + mix[2]) {
+            query(intendedStart);
+        } else {
+            send("GET /account",
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/account?user_id=" + accountOwners.get(index))).GET(),
+                    intendedStart, null);
+        }
+    }
+
+    private void use(int index, long intendedStart) {
+        String accountNumber = accountNumbers.get(index);
+        send("POST /transaction/use",
+                json("/transaction/use", "{\"userId\":" + accountOwners.get(index)
+                        + ",\"accountNumber\":\"" + accountNumber + "\",\"amount\":" + AMOUNT + "}"),
+                intendedStart,
+                body -> {
+                    if (body.hasNonNull("transactionId")) {
+                        String transactionId = body.get("transactionId").asText();
+                        cancelable.offer(new String[]{transactionId, accountNumber});
+                        recentTransactions.set(Math.floorMod(recentIndex.getAndIncrement(), RECENT_TRANSACTIONS), transactionId);
+                    }
+                });
+    }
+
+    private void cancel(int index, long intendedStart) {
+        String[] target = cancelable.poll();
+        if (target == null) {
+            // 취소할 거래가 아직 없으면 사용 요청으로 대신한다.
+            use(index, intendedStart);
+            return;
+        }
+        send("POST /transaction/cancel",
+                json("/transaction/cancel", "{\"transactionId\":\"" + target[0]
+                        + "\",\"accountNumber\":\"" + target[1] + "\",\"amount\":" + AMOUNT + "}"),
+                intendedStart, null);
+    }
+
+    private void query(long intendedStart) {
+        String transactionId = recentTransactions.get(ThreadLocalRandom.current().nextInt(RECENT_TRANSACTIONS));
+        if (transactionId == null) {
+            transactionId = "unknown";
+        }
+        send("GET /transaction/{id}",
+                HttpRequest.newBuilder(URI.create(baseUrl + "/transaction/" + transactionId)).GET(),
+                intendedStart, null);
+    }
+
+    private void send(String endpoint, HttpRequest.Builder request, long intendedStart, Consumer<JsonNode> onSuccess) {
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, throwable) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    try {
+                        recorder.record(endpoint, outcome(response, throwable, onSuccess), latency);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    private String outcome(HttpResponse<String> response, Throwable throwable, Consumer<JsonNode> onSuccess) {
+        if (throwable != null) {
+            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            return cause instanceof HttpTimeoutException ? "TIMEOUT" : "IO_ERROR";
+        }
+        if (response.statusCode() >= 300) {
+            return "HTTP_" + response.statusCode();
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            if (body.hasNonNull("errorCode")) {
+                return body.get("errorCode").asText();
+            }
+            if (onSuccess != null) {
+                onSuccess.accept(body);
+            }
+            return "OK";
+        } catch (Exception e) {
+            return "INVALID_BODY";
+        }
+    }
+
+    private void createAccounts() throws Exception {
+        for (int i = 0; i < accountCount; i++) {
+            long userId = (i % userCount) + 1;
+            HttpResponse<String> response = httpClient.send(
+                    json("/account", "{\"userId\":" + userId + ",\"initialBalance\":" + INITIAL_BALANCE + "}").build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode body = objectMapper.readTree(response.body());
+            if (!body.hasNonNull("accountNumber")) {
+                throw new IllegalStateException("Failed to create account: " + response.body());
+            }
+            accountNumbers.add(body.get("accountNumber").asText());
+            accountOwners.add(userId);
+        }
+    }
+
+    private HttpRequest.Builder json(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private String endpointName(int pick) {
+        if (pick < mix[0]) {
+            return "POST /transaction/use";
+        } else if (pick < mix[0] + mix[1]) {
+            return "POST /transaction/cancel";
+        } else if (pick < mix[0] + mix[1] + mix[2]) {
+            return "GET /transaction/{id}";
+        }
+        return "GET /account";
+    }
+
+    private static int[] parseMix(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("loadtest.mix must have 4 weights: use,cancel,query,account");
+        }
+        int[] mix = new int[4];
+        for (int i = 0; i < 4; i++) {
+            mix[i] = Integer.parseInt(parts[i].trim());
+        }
+        return mix;
+    }
+}
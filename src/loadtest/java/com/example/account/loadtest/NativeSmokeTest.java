@@ -0,0 +1,184 @@
+package com.example.account.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import redis.embedded.RedisServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * native 실행 파일을 띄우고 계좌 생성 → 사용 → 취소 → 조회 흐름이 JVM 과 같게 동작하는지 확인한다.
+ * 기동 시간과 흐름이 끝난 뒤의 RSS 를 함께 출력한다. 실패하면 0 이 아닌 코드로 종료한다.
+ *
+ * <pre>
+ * smoke.binary     native 실행 파일 경로 (gradle nativeSmokeTest 가 채운다)
+ * smoke.port       애플리케이션 포트 (기본 18081)
+ * smoke.redisPort  smoke test 가 띄울 Redis 포트 (기본 16391)
+ * smoke.timeout    기동을 기다리는 최대 시간(초) (기본 30)
+ * </pre>
+ */
+public class NativeSmokeTest {
+    private final String binary = System.getProperty("smoke.binary", "build/native/nativeCompile/account");
+    private final int port = Integer.getInteger("smoke.port", 18081);
+    private final int redisPort = Integer.getInteger("smoke.redisPort", 16391);
+    private final long timeoutNanos = TimeUnit.SECONDS.toNanos(Integer.getInteger("smoke.timeout", 30));
+    private final String baseUrl = "http://localhost:" + port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        try {
+            new NativeSmokeTest().run();
+        } catch (Exception | AssertionError e) {
+            System.err.println("Native smoke test failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void run() throws Exception {
+        Path reportDir = Paths.get("build", "reports", "native");
+        Files.createDirectories(reportDir);
+        File log = reportDir.resolve("smoke.log").toFile();
+
+        // native image 는 외부 Redis 를 쓰므로 테스트용 Redis 를 따로 띄운다.
+        RedisServer redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        Process process = null;
+        try {
+            long start = System.nanoTime();
+            process = new ProcessBuilder(List.of(binary,
+                    "--spring.profiles.active=native",
+                    "--server.port=" + port,
+                    "--spring.redis.port=" + redisPort))
+                    .redirectErrorStream(true)
+                    .redirectOutput(log)
+                    .start();
+            awaitHealthy(process, log);
+            System.out.printf("Native executable ready after %dms%n",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            runFlow();
+
+            System.out.printf("RSS after flow: %s%n", residentSetSize(process.pid()));
+            System.out.println("Native smoke test passed");
+        } finally {
+            if (process != null) {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+            redisServer.stop();
+        }
+    }
+
+    private void runFlow() throws Exception {
+        JsonNode account = post("/account", "{\"userId\":1,\"initialBalance\":10000}");
+        String accountNumber = require(account, "accountNumber");
+
+        JsonNode used = post("/transaction/use",
+                "{\"userId\":1,\"accountNumber\":\"" + accountNumber + "\",\"amount\":1000}");
+        expect("S", require(used, "transactionResult"), "use result");
+        expect("1000", require(used, "amount"), "use amount");
+        String transactionId = require(used, "transactionId");
+
+        JsonNode canceled = post("/transaction/cancel",
+                "{\"transactionId\":\"" + transactionId + "\",\"accountNumber\":\"" + accountNumber + "\",\"amount\":1000}");
+        expect("S", require(canceled, "transactionResult"), "cancel result");
+
+        JsonNode queried = get("/transaction/" + transactionId);
+        expect("USE", require(queried, "transactionType"), "queried type");
+        expect(accountNumber, require(queried, "accountNumber"), "queried account");
+
+        JsonNode accounts = get("/account?user_id=1");
+        for (JsonNode node : accounts) {
+            if (accountNumber.equals(node.path("accountNumber").asText())) {
+                expect("10000", node.path("balance").asText(), "balance after cancel");
+                return;
+            }
+        }
+        throw new AssertionError("Created account " + accountNumber + " is not listed for user 1");
+    }
+
+    private void awaitHealthy(Process process, File log) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < timeoutNanos) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Native executable exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 아직 포트가 열리지 않았다.
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Native executable did not become healthy, see " + log);
+    }
+
+    private JsonNode post(String path, String body) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private JsonNode get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private JsonNode send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new AssertionError(request.method() + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String require(JsonNode body, String field) {
+        if (!body.hasNonNull(field)) {
+            throw new AssertionError("Missing " + field + " in " + body);
+        }
+        return body.get(field).asText();
+    }
+
+    private static void expect(String expected, String actual, String what) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError(what + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static String residentSetSize(long pid) {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        try {
+            return Files.readAllLines(status).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.substring("VmRSS:".length()).trim())
+                    .findFirst()
+                    .orElse("unknown");
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.account.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션을 새 JVM 으로 여러 번 띄우고, 프로세스 시작부터 첫 요청이 성공할 때까지의 시간을 잰다.
+ *
+ * <pre>
+ * startup.classpath   실행할 애플리케이션 classpath (gradle startupBenchmark 가 채운다)
+ * startup.runs        반복 횟수 (기본 5)
+ * startup.profile     활성 프로필 (기본 faststart)
+ * startup.path        첫 요청 경로 (기본 /account?user_id=1)
+ * startup.cds         true 면 startup.cdsArchive 의 AppCDS 아카이브를 사용 (기본 false)
+ * startup.jvmArgs     추가 JVM 옵션, 공백 구분
+ * startup.label       결과 CSV 에 남길 이름 (기본 profile 과 cds 여부)
+ * startup.timeout     한 번의 기동을 기다리는 최대 시간(초) (기본 60)
+ * </pre>
+ */
+public class StartupBenchmark {
+    private static final String MAIN_CLASS = "com.example.account.AccountApplication";
+    private static final int SERVER_PORT = 18080;
+    private static final int REDIS_PORT = 16390;
+
+    private final String classpath = required("startup.classpath");
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final String profile = System.getProperty("startup.profile", "faststart");
+    private final String path = System.getProperty("startup.path", "/account?user_id=1");
+    private final boolean cds = Boolean.getBoolean("startup.cds");
+    private final String cdsArchive = System.getProperty("startup.cdsArchive", "build/cds/app.jsa");
+    private final String jvmArgs = System.getProperty("startup.jvmArgs", "");
+    private final String label = System.getProperty("startup.label", profile + (cds ? "+cds" : ""));
+    private final long timeoutNanos = TimeUnit.SECONDS.toNanos(Integer.getInteger("startup.timeout", 60));
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark().run();
+    }
+
+    private void run() throws Exception {
+        Path reportDir = Paths.get("build", "reports", "startup");
+        Files.createDirectories(reportDir);
+
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            long millis = measure(reportDir.resolve(label + "-" + i + ".log").toFile());
+            System.out.printf("run %d: first %s answered after %dms%n", i, path, millis);
+            samples.add(millis);
+        }
+
+        Collections.sort(samples);
+        long min = samples.get(0);
+        long median = samples.get(samples.size() / 2);
+        long max = samples.get(samples.size() - 1);
+        System.out.printf("%s: time-to-first-request min=%dms median=%dms max=%dms (%d runs)%n",
+                label, min, median, max, runs);
+
+        Path csv = reportDir.resolve("results.csv");
+        boolean header = !Files.exists(csv);
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csv,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (header) {
+                writer.println("label,runs,min_ms,median_ms,max_ms");
+            }
+            writer.printf("%s,%d,%d,%d,%d%n", label, runs, min, median, max);
+        }
+    }
+
+    private long measure(File log) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (cds) {
+            command.add("-XX:SharedArchiveFile=" + cdsArchive);
+            command.add("-Xshare:auto");
+        }
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS,
+                "--spring.profiles.active=" + profile,
+                "--server.port=" + SERVER_PORT,
+                "--spring.redis.port=" + REDIS_PORT,
+                // 매번 같은 조건으로 재기 위해 외부 Redis 대신 embedded Redis 를 띄운다.
+                "--account.redis.embedded.enabled=true"));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + SERVER_PORT + path))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            while (System.nanoTime() - start < timeoutNanos) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                if (answered(request)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Application did not answer within the timeout, see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean answered(HttpRequest request) throws InterruptedException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // 아직 포트가 열리지 않았다.
+            return false;
+        }
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("System property " + name + " is required");
+        }
+        return value;
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.account.aop;
 
+import com.example.account.type.LockMode;
+
 import java.lang.annotation.*;
 
+/**
+ * 첫 번째 인자가 계좌번호인 메소드에 붙인다. 검증은 호출하는 쪽에서 lock 없이 먼저 한다.
+ * lock 대기 시간은 account.lock.wait-millis 로 정한다.
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 @Inherited
 public @interface AccountLock {
-    long tryLockTime() default 5000L;
+    // account.lock.fair-accounts 에 있는 계좌는 mode 와 관계없이 FAIR 로 처리된다.
+    LockMode mode() default LockMode.STANDARD;
 }
@@ -0,0 +1,39 @@
+package com.example.account.aop;
+
+/**
+ * 현재 스레드의 계좌 lock 이 Redis 대신 DB 행 lock 으로 처리되어야 하는지를 전달한다.
+ * LockService 가 lock 시점에 설정하고 unLock 시점에 지운다.
+ * <p>
+ * 이 스레드가 Redis lock 을 기다린 시간도 누적해 둔다. ConcurrencyLimitAspect 는 요청 전후의 차이만큼을
+ * 지연 시간에서 빼서, 한 계좌에 몰린 요청의 lock 대기가 공용 한도를 줄이지 않게 한다.
+ */
+public final class AccountLockContext {
+    private static final ThreadLocal<Boolean> DATABASE_LOCK = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> LOCK_WAIT_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private AccountLockContext() {
+    }
+
+    public static void useDatabaseLock() {
+        DATABASE_LOCK.set(Boolean.TRUE);
+    }
+
+    public static boolean isDatabaseLock() {
+        return DATABASE_LOCK.get() != null;
+    }
+
+    public static void clear() {
+        DATABASE_LOCK.remove();
+    }
+
+    public static void addLockWait(long nanos) {
+        LOCK_WAIT_NANOS.get()[0] += nanos;
+    }
+
+    /**
+     * 이 스레드가 지금까지 lock 을 기다린 시간의 누적값. 두 시점의 차이로만 쓴다.
+     */
+    public static long lockWaitNanos() {
+        return LOCK_WAIT_NANOS.get()[0];
+    }
+}
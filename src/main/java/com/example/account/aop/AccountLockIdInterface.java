@@ -1,5 +0,0 @@
-package com.example.account.aop;
-
-public interface AccountLockIdInterface {
-    String getAccountNumber();
-}
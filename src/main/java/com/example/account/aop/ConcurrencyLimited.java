@@ -0,0 +1,14 @@
+package com.example.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 동시에 처리 중인 요청 수를 지연 시간에 따라 조절되는 한도로 제한한다. value 별로 한도를 따로 둔다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface ConcurrencyLimited {
+    String value();
+}
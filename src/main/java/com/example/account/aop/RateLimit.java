@@ -0,0 +1,15 @@
+package com.example.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 요청을 token bucket 으로 제한한다. value 는 account.rate-limit.endpoints 아래의 설정 이름이다.
+ * 인자는 RateLimitKeyInterface 를 구현해야 한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface RateLimit {
+    String value();
+}
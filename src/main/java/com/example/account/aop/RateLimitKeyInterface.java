@@ -0,0 +1,10 @@
+package com.example.account.aop;
+
+public interface RateLimitKeyInterface {
+    String getAccountNumber();
+
+    // 요청에 사용자 정보가 없으면 사용자 단위 제한은 건너뛴다.
+    default Long getUserId() {
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.account.aop;
+
+/**
+ * 현재 스레드가 사용할 shard. ShardRoutingDataSource 가 connection 을 얻을 때 읽는다.
+ * 지정되지 않았으면 기본 shard(0)를 쓴다.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer get() {
+        return SHARD.get();
+    }
+
+    public static int currentOrDefault() {
+        Integer shard = SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+    }
+}
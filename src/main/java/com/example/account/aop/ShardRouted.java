@@ -0,0 +1,15 @@
+package com.example.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 메소드 전체를 한 shard 에서 실행한다. shard 는 {@link ShardKey} 가 붙은 인자로 정하고,
+ * 그런 인자가 없으면 새 계좌를 만들 shard 를 돌아가며 고른다.
+ * 트랜잭션보다 먼저 적용되어야 트랜잭션의 connection 이 그 shard 에서 열린다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface ShardRouted {
+}
@@ -1,28 +1,48 @@
 package com.example.account.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import redis.embedded.RedisServer;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * 로컬 개발용 embedded Redis.
+ * 프로세스 기동을 기다리지 않도록 별도 스레드에서 띄우고, Redis 가 필요한 쪽(RedissonClient 생성)에서만 기다린다.
+ */
+@Slf4j
 @Configuration
+@ConditionalOnProperty(name = "account.redis.embedded.enabled", havingValue = "true", matchIfMissing = true)
 public class LocalRedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
     private RedisServer redisServer;
+    private CompletableFuture<Void> started;
 
     @PostConstruct
     public void startRedis() {
         redisServer = new RedisServer(redisPort);
-        redisServer.start();
+        started = CompletableFuture.runAsync(() -> {
+            long begin = System.nanoTime();
+            redisServer.start();
+            log.info("Embedded redis started on port {} in {}ms", redisPort, (System.nanoTime() - begin) / 1_000_000);
+        });
+    }
+
+    public void awaitStarted() {
+        started.join();
     }
 
     @PreDestroy
     public void stopRedis() {
         if (redisServer != null) {
+            // 기동 중에 종료되는 경우에도 프로세스가 남지 않도록 기동이 끝난 뒤에 멈춘다.
+            started.handle((result, e) -> null).join();
             redisServer.stop();
         }
     }
@@ -0,0 +1,27 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.lock")
+public class LockProperties {
+    private long waitMillis = 1000L;
+    private long leaseMillis = 15000L;
+
+    /**
+     * 이 인스턴스에서 한 계좌의 lock 을 동시에 기다릴 수 있는 요청 수. 0 이면 제한하지 않는다.
+     * 대기열이 길면 어차피 wait 시간 안에 차례가 오지 않으므로 기다리지 않고 바로 거절한다.
+     */
+    private int maxWaiters = 32;
+
+    // 요청이 몰리는 계좌. endpoint 의 mode 와 관계없이 fair lock 을 사용한다.
+    private Set<String> fairAccounts = new HashSet<>();
+}
@@ -0,0 +1,82 @@
+package com.example.account.config;
+
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * 에러도 HTTP 200 으로 응답하므로 http.server.requests 에 error_code tag 를 붙여 실패율을 구분한다.
+     */
+    @Bean
+    public WebMvcTagsContributor errorCodeTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Throwable exception) {
+                Object errorCode = request.getAttribute(AccountMetrics.ERROR_CODE_ATTRIBUTE);
+                return Tags.of("error_code", errorCode == null ? "none" : errorCode.toString());
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+
+    /**
+     * Hibernate 와 JdbcTemplate 이 같은 DataSource 를 쓰므로 DataSource 를 감싸 두 경로의 SQL 을 함께 센다.
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatementCounterPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? SqlStatementCounter.countStatements((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    /**
+     * 요청마다 실행한 SQL 수를 account.sql.statements 로 남겨 hot path 의 round trip 증가를 확인한다.
+     */
+    @Bean
+    public WebMvcConfigurer sqlStatementMetricsConfigurer(AccountMetrics accountMetrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        SqlStatementCounter.reset();
+                        return true;
+                    }
+
+                    @Override
+                    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                                Object handler, Exception ex) {
+                        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                        accountMetrics.recordSqlStatements(pattern == null ? "UNKNOWN" : pattern.toString(),
+                                SqlStatementCounter.count());
+                    }
+                });
+            }
+        };
+    }
+}
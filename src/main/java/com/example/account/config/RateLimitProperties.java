@@ -0,0 +1,43 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+
+    // true 면 로컬 bucket 을 통과한 요청을 Redis 의 전역 bucket 으로 한 번 더 확인한다.
+    private boolean redisEnabled = false;
+
+    private Map<String, Endpoint> endpoints = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private Bucket account = new Bucket();
+        private Bucket user = new Bucket();
+    }
+
+    /**
+     * capacity 가 0 이면 제한하지 않는다.
+     */
+    @Getter
+    @Setter
+    public static class Bucket {
+        private long capacity;
+        private long refillPerSecond;
+
+        public boolean isLimited() {
+            return capacity > 0 && refillPerSecond > 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.account.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * client 별 마지막 쓰기 시각을 기억해서, 정해진 시간 동안은 그 client 의 읽기를 primary 로 보내게 한다.
+ * client 는 요청마다 {@link ReadYourWritesFilter} 가 현재 스레드에 지정한다.
+ */
+public class ReadYourWritesTracker {
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final ThreadLocal<String> currentClient = new ThreadLocal<>();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(boolean enabled, long windowMillis) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    public void setCurrentClient(String clientId) {
+        currentClient.set(clientId);
+    }
+
+    public void clearCurrentClient() {
+        currentClient.remove();
+    }
+
+    public void markWrite() {
+        String clientId = currentClient.get();
+        if (!enabled || clientId == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        lastWrites.put(clientId, now);
+        if (lastWrites.size() > PRUNE_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+        }
+    }
+
+    public boolean isRecentWriter() {
+        String clientId = currentClient.get();
+        if (!enabled || clientId == null) {
+            return false;
+        }
+
+        Long writtenAt = lastWrites.get(clientId);
+        return writtenAt != null && System.nanoTime() - writtenAt <= windowNanos;
+    }
+}
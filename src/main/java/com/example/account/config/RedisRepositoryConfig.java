@@ -3,6 +3,7 @@ package com.example.account.config;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,9 +17,20 @@ public class RedisRepositoryConfig {
     private int redisPort;
 
     @Bean
-    public RedissonClient redissonClient() {
+    public RedissonClient redissonClient(ObjectProvider<LocalRedisConfig> localRedisConfig) {
+        // embedded Redis 를 쓰는 경우 연결 전에 기동이 끝나기를 기다린다.
+        localRedisConfig.ifAvailable(LocalRedisConfig::awaitStarted);
+
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        // Redis 장애 시 lock 요청이 오래 기다리지 않고 실패해야 LockService 의 circuit breaker 가 빨리 열린다.
+        config.useSingleServer()
+                .setAddress("redis://" + redisHost + ":" + redisPort)
+                .setConnectTimeout(1000)
+                .setTimeout(500)
+                .setRetryAttempts(1)
+                .setRetryInterval(200);
+        // Lua 스크립트를 매번 전송하지 않고 EVALSHA 로 실행한다.
+        config.setUseScriptCache(true);
 
         return Redisson.create(config);
     }
@@ -0,0 +1,49 @@
+package com.example.account.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate 의 ddl-auto 와 data.sql 은 primary 에만 적용되므로,
+ * 기동 시 replica 가 비어 있으면 primary 의 schema 와 데이터를 H2 SCRIPT 로 떠서 replica 에 그대로 만든다.
+ * 그 뒤의 쓰기는 복제되지 않는다. 로컬 H2 구성용이며, 운영 replica 는 DB 복제로 채운다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaSchemaInitializer implements SmartInitializingSingleton {
+    private final DataSource dataSource;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Object, DataSource> targets;
+        try {
+            targets = dataSource.unwrap(ReplicationRoutingDataSource.class).getResolvedDataSources();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Replication data source is not configured", e);
+        }
+        JdbcTemplate primary = new JdbcTemplate(targets.get(ReplicationRoutingDataSource.PRIMARY));
+        JdbcTemplate replica = new JdbcTemplate(targets.get(ReplicationRoutingDataSource.REPLICA));
+
+        Integer tables = replica.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE UPPER(table_name) = 'ACCOUNT'",
+                Integer.class);
+        if (tables != null && tables > 0) {
+            return;
+        }
+
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        for (String statement : script) {
+            if (!statement.startsWith("--")) {
+                replica.execute(statement);
+            }
+        }
+        log.info("Initialized replica schema from primary");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.account.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * spring.datasource 를 primary 로, account.datasource.replica 를 replica 로 사용하는 routing DataSource.
+ * {@code @Transactional(readOnly = true)} 인 service 메소드만 replica 에서 읽는다.
+ * replica 가 비어 있으면 {@link ReplicaSchemaInitializer} 가 기동 시 primary 의 schema 와 데이터로 채운다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "account.datasource.replica.enabled", havingValue = "true")
+public class ReplicationDataSourceConfig {
+    @Value("${account.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${account.datasource.replica.username:sa}")
+    private String replicaUsername;
+
+    @Value("${account.datasource.replica.password:}")
+    private String replicaPassword;
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${account.datasource.read-your-writes.enabled:false}") boolean enabled,
+            @Value("${account.datasource.read-your-writes.window-ms:1000}") long windowMillis) {
+        return new ReadYourWritesTracker(enabled, windowMillis);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        return new ReadYourWritesFilter(readYourWritesTracker);
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, ReadYourWritesTracker readYourWritesTracker) {
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+        DataSource replica = DataSourceBuilder.create()
+                .driverClassName(properties.getDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicationRoutingDataSource.PRIMARY, primary);
+        targets.put(ReplicationRoutingDataSource.REPLICA, replica);
+
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(readYourWritesTracker);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaSchemaInitializer replicaSchemaInitializer(DataSource dataSource) {
+        return new ReplicaSchemaInitializer(dataSource);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.account.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션은 replica 로, 그 외는 primary 로 보낸다.
+ * 트랜잭션 속성이 정해진 뒤 connection 을 얻도록 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ */
+@RequiredArgsConstructor
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.markWrite();
+            return PRIMARY;
+        }
+
+        // 방금 쓰기를 한 client 의 읽기는 replica 지연을 피해 primary 에서 처리한다.
+        if (readYourWritesTracker.isRecentWriter()) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+}
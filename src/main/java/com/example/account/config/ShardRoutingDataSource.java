@@ -0,0 +1,15 @@
+package com.example.account.config;
+
+import com.example.account.aop.ShardContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 현재 스레드의 ShardContext 로 shard DataSource 를 고른다.
+ * 트랜잭션이 시작된 뒤 shard 가 정해지는 경우가 없도록 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentOrDefault();
+    }
+}
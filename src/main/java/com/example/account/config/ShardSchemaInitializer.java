@@ -0,0 +1,58 @@
+package com.example.account.config;
+
+import com.example.account.service.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Hibernate 의 ddl-auto 와 data.sql 은 기본 shard(0)에만 적용되므로,
+ * 기동 시 shard 0 의 schema 와 기준 데이터(account_user)를 H2 SCRIPT 로 떠서 비어 있는 shard 에 그대로 만든다.
+ * 복사한 sequence 와 IDENTITY 는 shard 0 과 같은 값에서 이어지므로, shard 마다 떨어진 구간에서 다시 시작해
+ * outbox 이벤트 id 처럼 shard 밖으로 나가는 id 가 겹치지 않게 한다.
+ * 로컬 H2 구성용이며, 운영 DB 는 shard 마다 migration 을 실행한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+    // shard 하나가 쓰는 id 구간의 크기
+    static final long ID_RANGE = 1L << 40;
+
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<String> script = shardRouter.onShard(0, () -> jdbcTemplate.queryForList("SCRIPT", String.class));
+
+        for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+            int target = shard;
+            shardRouter.onShard(target, () -> {
+                Integer tables = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM information_schema.tables WHERE UPPER(table_name) = 'ACCOUNT'",
+                        Integer.class);
+                if (tables != null && tables > 0) {
+                    return null;
+                }
+                for (String statement : script) {
+                    if (!statement.startsWith("--")) {
+                        jdbcTemplate.execute(statement);
+                    }
+                }
+                List<String> sequences = jdbcTemplate.queryForList(
+                        "SELECT sequence_name FROM information_schema.sequences WHERE sequence_schema = SCHEMA()",
+                        String.class);
+                for (String sequence : sequences) {
+                    jdbcTemplate.execute("ALTER SEQUENCE \"" + sequence + "\" RESTART WITH " + (target * ID_RANGE + 1));
+                }
+                log.info("Initialized schema of shard {} from shard 0", target);
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.account.config;
+
+import com.example.account.service.ShardRouter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * account.sharding.shards 의 DataSource 들을 ShardContext 로 고르는 routing DataSource.
+ * 계좌와 그 계좌의 거래, 일별 집계, outbox 는 같은 shard 에 있고, account_user 는 모든 shard 에 복제된다.
+ * replica 구성(account.datasource.replica)과는 함께 쓰지 않는다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "account.sharding.enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, ShardingProperties shardingProperties) {
+        List<ShardingProperties.Shard> shards = shardingProperties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("account.sharding.shards must not be empty when sharding is enabled");
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            ShardingProperties.Shard shard = shards.get(i);
+            targets.put(i, DataSourceBuilder.create()
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build());
+        }
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(targets.get(0));
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(DataSource dataSource, ShardRouter shardRouter) {
+        return new ShardSchemaInitializer(dataSource, shardRouter);
+    }
+}
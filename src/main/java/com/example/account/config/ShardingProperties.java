@@ -0,0 +1,36 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+
+    /**
+     * 계좌번호는 bucket(계좌번호 % buckets)으로, bucket 은 shard 로 대응된다.
+     * 기본은 bucket % shard 수이고, 옮긴 bucket 만 movedBuckets 에 적는다.
+     */
+    private int buckets = 1024;
+    private Map<Integer, Integer> movedBuckets = new HashMap<>();
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.account.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * CDS 클래스 목록을 만들 때처럼 기동까지만 필요한 실행에서, 준비가 끝나면 바로 종료한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.startup.exit-on-ready", havingValue = "true")
+public class StartupExitListener {
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        log.info("Exiting after startup (account.startup.exit-on-ready=true)");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.account.controller;
 
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.AccountInfo;
+import com.example.account.dto.BulkCreateAccount;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
 import com.example.account.service.AccountService;
@@ -25,6 +26,16 @@ public class AccountController {
         return CreateAccount.Response.from(accountDto);
     }
 
+    @PostMapping("/account/bulk")
+    public BulkCreateAccount.Response createAccounts(@RequestBody @Valid BulkCreateAccount.Request request) {
+        List<BulkCreateAccount.Item> results = accountService.createAccounts(request.getAccounts());
+        return BulkCreateAccount.Response.builder()
+                .requested(results.size())
+                .created((int) results.stream().filter(item -> item.getErrorCode() == null).count())
+                .results(results)
+                .build();
+    }
+
     @DeleteMapping("/account")
     public DeleteAccount.Response deleteAccount(@RequestBody @Valid DeleteAccount.Request request) {
         AccountDto accountDto = accountService.deleteAccount(
@@ -0,0 +1,21 @@
+package com.example.account.controller;
+
+import com.example.account.dto.ReconciliationReport;
+import com.example.account.service.LedgerReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class ReconciliationController {
+    private final LedgerReconciliationService ledgerReconciliationService;
+
+    @PostMapping("/reconciliation")
+    public ReconciliationReport reconcile(
+            @RequestParam(value = "incremental", defaultValue = "false") boolean incremental
+    ) {
+        return ledgerReconciliationService.reconcile(incremental);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.account.controller;
+
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.service.RedisBalanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * Redis 잔액 엔진을 사용하는 거래 API.
+ * 검증과 잔액 변경이 Lua 스크립트 안에서 원자적으로 처리되므로 계좌 lock 을 잡지 않는다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.balance-engine.redis.enabled", havingValue = "true")
+public class RedisTransactionController {
+    private final RedisBalanceService redisBalanceService;
+
+    @PostMapping("/redis/transaction/use")
+    public UseBalance.Response useBalance(
+            @Valid @RequestBody UseBalance.Request request
+    ) {
+        TransactionDto transactionDto = redisBalanceService
+                .useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount());
+
+        return UseBalance.Response.fromDto(transactionDto);
+    }
+
+    @PostMapping("/redis/transaction/cancel")
+    public CancelBalance.Response cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        TransactionDto transactionDto = redisBalanceService
+                .cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount());
+
+        return CancelBalance.Response.fromDto(transactionDto);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.account.controller;
+
+import com.example.account.dto.DailySummaryDto;
+import com.example.account.service.DailySummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class SummaryController {
+    private final DailySummaryService dailySummaryService;
+
+    @GetMapping("/summary/account")
+    public List<DailySummaryDto> getAccountSummaries(
+            @RequestParam("account_number") String accountNumber,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return dailySummaryService.getAccountSummaries(accountNumber, from, to);
+    }
+
+    @GetMapping("/summary/user")
+    public List<DailySummaryDto> getUserSummaries(
+            @RequestParam("user_id") Long userId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return dailySummaryService.getUserSummaries(userId, from, to);
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.account.controller;
 
-import com.example.account.aop.AccountLock;
+import com.example.account.aop.ConcurrencyLimited;
+import com.example.account.aop.RateLimit;
+import com.example.account.dto.AuthorizeBalance;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.CaptureBalance;
 import com.example.account.dto.QueryTransactionResponse;
 import com.example.account.dto.TransactionDto;
 import com.example.account.dto.UseBalance;
+import com.example.account.dto.VoidBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.service.TransactionService;
+import com.example.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -20,19 +25,25 @@ public class TransactionController {
 
     private final TransactionService transactionService;
 
-    @AccountLock
+    @RateLimit("use")
+    @ConcurrencyLimited("transaction")
     @PostMapping("/transaction/use")
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
-    ) throws Exception{
+    ) {
+        // 확실히 없는 계좌는 실패 거래도 남길 수 없으므로 try 밖에서 거절한다.
+        transactionService.rejectUnknownAccount(request.getAccountNumber());
+
+        // 검증은 lock 없이 하고, 잔액 변경만 계좌 lock 안에서 한다.
         try {
-            Thread.sleep(5000L);
+            transactionService.validateUseBalance(
+                    request.getUserId(), request.getAccountNumber(), request.getAmount());
             TransactionDto transactionDto = transactionService
-                    .useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount());
+                    .useBalance(request.getAccountNumber(), request.getAmount());
             log.debug("transactionDto: {}", transactionDto.getTransactionResultType());
             return UseBalance.Response.fromDto(transactionDto);
         }catch (AccountException e) {
-            log.error("Failed to use balance.");
+            log.debug("Failed to use balance.");
             transactionService.saveFailedUseTransaction(
                     request.getAccountNumber(),
                     request.getAmount()
@@ -42,18 +53,24 @@ public class TransactionController {
         }
     }
 
-    @AccountLock
+    @RateLimit("cancel")
+    @ConcurrencyLimited("transaction")
     @PostMapping("/transaction/cancel")
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request
     ) {
+        transactionService.rejectUnknownAccount(request.getAccountNumber());
+        transactionService.rejectUnknownTransaction(request.getTransactionId());
+
         try {
+            transactionService.validateCancelBalance(
+                    request.getTransactionId(), request.getAccountNumber(), request.getAmount());
             TransactionDto transactionDto = transactionService
-                    .cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount());
+                    .cancelBalance(request.getAccountNumber(), request.getAmount());
 
             return CancelBalance.Response.fromDto(transactionDto);
         }catch (AccountException e) {
-            log.error("Failed to use balance.");
+            log.debug("Failed to cancel balance.");
             transactionService.saveFailedCancelTransaction(
                     request.getAccountNumber(),
                     request.getAmount()
@@ -63,6 +80,85 @@ public class TransactionController {
         }
     }
 
+    /**
+     * 잔액을 바로 쓰지 않고 승인 유효 기간 동안 잡아 둔다. 장부 잔액은 매입할 때 바뀐다.
+     */
+    @RateLimit("use")
+    @ConcurrencyLimited("transaction")
+    @PostMapping("/transaction/authorize")
+    public AuthorizeBalance.Response authorizeBalance(
+            @Valid @RequestBody AuthorizeBalance.Request request
+    ) {
+        transactionService.rejectUnknownAccount(request.getAccountNumber());
+
+        try {
+            transactionService.validateUseBalance(
+                    request.getUserId(), request.getAccountNumber(), request.getAmount());
+            return AuthorizeBalance.Response.fromDto(transactionService
+                    .authorizeBalance(request.getAccountNumber(), request.getAmount()));
+        }catch (AccountException e) {
+            log.debug("Failed to authorize balance.");
+            transactionService.saveFailedHoldTransaction(
+                    TransactionType.AUTHORIZE,
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+
+            throw e;
+        }
+    }
+
+    @RateLimit("use")
+    @ConcurrencyLimited("transaction")
+    @PostMapping("/transaction/capture")
+    public CaptureBalance.Response captureBalance(
+            @Valid @RequestBody CaptureBalance.Request request
+    ) {
+        transactionService.rejectUnknownAccount(request.getAccountNumber());
+
+        try {
+            transactionService.validateCaptureBalance(
+                    request.getHoldId(), request.getAccountNumber(), request.getAmount());
+            TransactionDto transactionDto = transactionService.captureBalance(
+                    request.getAccountNumber(), request.getHoldId(), request.getAmount());
+
+            return CaptureBalance.Response.fromDto(transactionDto);
+        }catch (AccountException e) {
+            log.debug("Failed to capture balance.");
+            transactionService.saveFailedHoldTransaction(
+                    TransactionType.CAPTURE,
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+
+            throw e;
+        }
+    }
+
+    @RateLimit("cancel")
+    @ConcurrencyLimited("transaction")
+    @PostMapping("/transaction/void")
+    public VoidBalance.Response voidBalance(
+            @Valid @RequestBody VoidBalance.Request request
+    ) {
+        transactionService.rejectUnknownAccount(request.getAccountNumber());
+
+        try {
+            return VoidBalance.Response.fromDto(
+                    transactionService.voidBalance(request.getHoldId(), request.getAccountNumber()));
+        }catch (AccountException e) {
+            log.debug("Failed to void balance.");
+            // 승인 취소 요청에는 금액이 없으므로 0 으로 남긴다.
+            transactionService.saveFailedHoldTransaction(
+                    TransactionType.VOID,
+                    request.getAccountNumber(),
+                    0L
+            );
+
+            throw e;
+        }
+    }
+
     @GetMapping("/transaction/{transactionId}")
     public QueryTransactionResponse queryTransaction(
             @PathVariable String transactionId
@@ -27,10 +27,34 @@ public class Account extends BaseEntity{
     private AccountStatus accountStatus;
     private Long balance;
 
+    // 승인으로 잡혀 있는 금액. 잠금 없이 바뀌므로 AccountRepository.addHeldBalance 의 상대 UPDATE 로만 바꾼다.
+    @Builder.Default
+    @Column(nullable = false, updatable = false)
+    private Long heldBalance = 0L;
+
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
+    // Redis lock 과 DB 행 lock 이 전환되는 동안 두 방식이 섞여도 잔액 갱신이 유실되지 않게 한다.
+    @Version
+    private Long version;
+
+    public Long getAvailableBalance() {
+        return balance - heldBalance;
+    }
+
     public void useBalance(Long amount) {
+        if (amount > getAvailableBalance()) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        this.balance -= amount;
+    }
+
+    /**
+     * 승인된 금액을 매입한다. 가용 잔액은 승인 때 이미 줄었으므로 장부 잔액만 확인한다.
+     */
+    public void captureBalance(Long amount) {
         if (amount > balance) {
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
@@ -1,7 +1,10 @@
 package com.example.account.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
@@ -12,6 +15,10 @@ import javax.persistence.Id;
 @NoArgsConstructor
 @Builder
 @Entity
+// 거의 바뀌지 않으므로 2차 캐시에 둔다. JPA 를 거친 변경은 Hibernate 가 캐시도 함께 갱신하고,
+// SQL 로 직접 바꾼 경우에는 EntityManagerFactory.getCache().evict(AccountUser.class) 로 비워야 한다.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accountUser")
 public class AccountUser extends BaseEntity{
     @Id
     @GeneratedValue
@@ -0,0 +1,39 @@
+package com.example.account.domain;
+
+import com.example.account.type.HoldStatus;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 승인(authorize)으로 잡아 둔 금액. 보류 중인 금액만큼 가용 잔액이 줄고 장부 잔액은 그대로다.
+ * 상태는 HELD 에서 한 번만 CAPTURED, VOIDED, EXPIRED 중 하나로 바뀐다.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_balance_hold_hold_id", columnList = "holdId", unique = true),
+        @Index(name = "idx_balance_hold_status_expires_at", columnList = "status, expiresAt")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BalanceHold extends BaseEntity {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String holdId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Account account;
+    private Long amount;
+
+    @Enumerated(EnumType.STRING)
+    private HoldStatus status;
+
+    private LocalDateTime expiresAt;
+    private LocalDateTime closedAt;
+}
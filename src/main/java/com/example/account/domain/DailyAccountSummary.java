@@ -0,0 +1,44 @@
+package com.example.account.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * 계좌별 일 단위 거래 집계. 거래가 저장될 때 같은 트랜잭션 안에서 DailySummaryService 가 상대값으로 갱신한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_daily_account_summary_account_date", columnNames = {"accountId", "summaryDate"}),
+        indexes = @Index(
+                name = "idx_daily_account_summary_user_date", columnList = "accountUserId, summaryDate")
+)
+public class DailyAccountSummary extends BaseEntity {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private Long accountId;
+    private Long accountUserId;
+    private LocalDate summaryDate;
+
+    @Builder.Default
+    private Long useCount = 0L;
+    @Builder.Default
+    private Long useAmount = 0L;
+    @Builder.Default
+    private Long cancelCount = 0L;
+    @Builder.Default
+    private Long cancelAmount = 0L;
+    @Builder.Default
+    private Long failedCount = 0L;
+    @Builder.Default
+    private Long failedAmount = 0L;
+}
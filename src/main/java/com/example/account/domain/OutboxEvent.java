@@ -0,0 +1,35 @@
+package com.example.account.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 거래와 같은 DB 트랜잭션에서 기록되는 외부 전달용 이벤트. OutboxRelay 가 id 순서대로 읽어 전달한다.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_outbox_event_published_at", columnList = "publishedAt, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    // IDENTITY 는 insert 순서대로 증가하므로 같은 계좌의 이벤트는 id 순서가 곧 거래 순서다.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String eventType;
+    // 같은 key 의 이벤트는 순서대로 전달된다.
+    private String aggregateKey;
+
+    @Column(length = 2000)
+    private String payload;
+
+    private LocalDateTime occurredAt;
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,25 @@
+package com.example.account.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class ReconciliationCheckpoint extends BaseEntity {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    // 이 시각 이후에 바뀐 계좌만 다음 증분 검사 대상이 된다.
+    private LocalDateTime checkpointAt;
+    private Long checkedAccounts;
+    private Long mismatches;
+}
@@ -8,6 +8,10 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_transaction_id", columnList = "transactionId"),
+        @Index(name = "idx_transaction_partition_key", columnList = "partitionKey")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -31,4 +35,7 @@ public class Transaction extends BaseEntity{
     private String transactionId;
     private LocalDateTime transactedAt;
 
+    // 거래 월(yyyyMM). 오래된 월은 TransactionPartitionManager 가 별도 테이블로 떼어낸다.
+    private Integer partitionKey;
+
 }
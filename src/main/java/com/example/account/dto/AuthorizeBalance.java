@@ -0,0 +1,54 @@
+package com.example.account.dto;
+
+import com.example.account.aop.RateLimitKeyInterface;
+import com.example.account.type.HoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.*;
+import java.time.LocalDateTime;
+
+public class AuthorizeBalance {
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request implements RateLimitKeyInterface {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(10_0000_0000)
+        private Long amount;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @Builder
+    public static class Response{
+        private String accountNumber;
+        private String holdId;
+        private HoldStatus status;
+        private Long amount;
+        private LocalDateTime expiresAt;
+
+        public static Response fromDto(HoldDto holdDto) {
+            return Response.builder()
+                    .accountNumber(holdDto.getAccountNumber())
+                    .holdId(holdDto.getHoldId())
+                    .status(holdDto.getStatus())
+                    .amount(holdDto.getAmount())
+                    .expiresAt(holdDto.getExpiresAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.account.dto;
+
+import com.example.account.type.ErrorCode;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BulkCreateAccount {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotEmpty
+        @Size(max = 1000)
+        private List<CreateAccount.@Valid Request> accounts;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private int requested;
+        private int created;
+        private List<Item> results;
+    }
+
+    /**
+     * 요청 순서(index)와 같은 순서로 한 건씩 결과를 담는다. 실패한 항목은 errorCode 가 채워진다.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private int index;
+        private Long userId;
+        private String accountNumber;
+        private LocalDateTime registeredAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static Item success(int index, AccountDto accountDto) {
+            return Item.builder()
+                    .index(index)
+                    .userId(accountDto.getUserId())
+                    .accountNumber(accountDto.getAccountNumber())
+                    .registeredAt(accountDto.getRegisteredAt())
+                    .build();
+        }
+
+        public static Item failure(int index, Long userId, ErrorCode errorCode) {
+            return Item.builder()
+                    .index(index)
+                    .userId(userId)
+                    .errorCode(errorCode)
+                    .errorMessage(errorCode.getDescription())
+                    .build();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.account.dto;
 
-import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.aop.RateLimitKeyInterface;
 import com.example.account.type.TransactionResultType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,7 +15,7 @@ public class CancelBalance {
     @Getter
     @Setter
     @AllArgsConstructor
-    public static class Request implements AccountLockIdInterface {
+    public static class Request implements RateLimitKeyInterface {
         @NotBlank
         private String transactionId;
 
@@ -0,0 +1,33 @@
+package com.example.account.dto;
+
+import com.example.account.domain.DailyAccountSummary;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DailySummaryDto {
+    private LocalDate summaryDate;
+    private Long useCount;
+    private Long useAmount;
+    private Long cancelCount;
+    private Long cancelAmount;
+    private Long failedCount;
+    private Long failedAmount;
+
+    public static DailySummaryDto fromEntity(DailyAccountSummary summary) {
+        return DailySummaryDto.builder()
+                .summaryDate(summary.getSummaryDate())
+                .useCount(summary.getUseCount())
+                .useAmount(summary.getUseAmount())
+                .cancelCount(summary.getCancelCount())
+                .cancelAmount(summary.getCancelAmount())
+                .failedCount(summary.getFailedCount())
+                .failedAmount(summary.getFailedAmount())
+                .build();
+    }
+}
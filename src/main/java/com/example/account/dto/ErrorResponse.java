@@ -1,14 +1,37 @@
 package com.example.account.dto;
 
 import com.example.account.type.ErrorCode;
-import lombok.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ErrorCode 별 인스턴스를 여러 요청이 같이 쓰므로 만든 뒤에는 바꿀 수 없다.
+ */
 @Getter
-@Setter
-@NoArgsConstructor
 @AllArgsConstructor
-@Builder
 public class ErrorResponse {
-    private ErrorCode errorCode;
-    private String errorMessage;
+    private final ErrorCode errorCode;
+    private final String errorMessage;
+
+    private static final Map<ErrorCode, ErrorResponse> RESPONSES = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            RESPONSES.put(errorCode, new ErrorResponse(errorCode, errorCode.getDescription()));
+        }
+    }
+
+    /**
+     * 기본 메시지를 쓰는 응답은 ErrorCode 별로 미리 만들어 둔 인스턴스를 재사용한다.
+     */
+    public static ErrorResponse of(ErrorCode errorCode, String errorMessage) {
+        ErrorResponse response = RESPONSES.get(errorCode);
+        if (response != null && response.getErrorMessage().equals(errorMessage)) {
+            return response;
+        }
+        return new ErrorResponse(errorCode, errorMessage);
+    }
 }
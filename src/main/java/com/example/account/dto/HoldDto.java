@@ -0,0 +1,30 @@
+package com.example.account.dto;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.type.HoldStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HoldDto {
+    private String accountNumber;
+    private String holdId;
+    private Long amount;
+    private HoldStatus status;
+    private LocalDateTime expiresAt;
+
+    public static HoldDto fromEntity(BalanceHold hold, String accountNumber) {
+        return HoldDto.builder()
+                .accountNumber(accountNumber)
+                .holdId(hold.getHoldId())
+                .amount(hold.getAmount())
+                .status(hold.getStatus())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.account.dto;
+
+import com.example.account.type.MismatchType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+    private boolean incremental;
+    private LocalDateTime since;
+    private LocalDateTime startedAt;
+    private long elapsedMillis;
+    private long checkedAccounts;
+    private long checkedTransactions;
+    private long mismatchCount;
+    // 응답 크기를 제한하기 위해 앞쪽 일부만 담는다.
+    private List<Mismatch> mismatches;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Mismatch {
+        private String accountNumber;
+        private MismatchType mismatchType;
+        private String transactionId;
+        private Long expected;
+        private Long actual;
+    }
+}
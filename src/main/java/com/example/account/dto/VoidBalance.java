@@ -0,0 +1,46 @@
+package com.example.account.dto;
+
+import com.example.account.aop.RateLimitKeyInterface;
+import com.example.account.type.HoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+public class VoidBalance {
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request implements RateLimitKeyInterface {
+        @NotBlank
+        private String holdId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @Builder
+    public static class Response{
+        private String accountNumber;
+        private String holdId;
+        private HoldStatus status;
+        private Long amount;
+
+        public static Response fromDto(HoldDto holdDto) {
+            return Response.builder()
+                    .accountNumber(holdDto.getAccountNumber())
+                    .holdId(holdDto.getHoldId())
+                    .status(holdDto.getStatus())
+                    .amount(holdDto.getAmount())
+                    .build();
+        }
+    }
+}
@@ -16,4 +16,12 @@ public class AccountException extends RuntimeException{
         this.errorCode = errorCode;
         errorMessage = errorCode.getDescription();
     }
+
+    /**
+     * 예상된 업무 거절이므로 stack trace 를 채우지 않는다.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
@@ -0,0 +1,52 @@
+package com.example.account.exception;
+
+import com.example.account.type.ErrorCode;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ErrorCode 별로 1초에 정해진 개수까지만 로그를 남기도록 한다.
+ * 건너뛴 개수는 다음에 남기는 로그에 함께 출력한다.
+ */
+class ErrorLogLimiter {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int permitsPerSecond;
+    private final Map<ErrorCode, Window> windows = new EnumMap<>(ErrorCode.class);
+
+    ErrorLogLimiter(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            windows.put(errorCode, new Window());
+        }
+    }
+
+    /**
+     * @return 로그를 남겨도 되면 직전까지 건너뛴 개수(0 이상), 건너뛰어야 하면 -1
+     */
+    long tryAcquire(ErrorCode errorCode) {
+        return windows.get(errorCode).tryAcquire(System.nanoTime());
+    }
+
+    private class Window {
+        private long startedAt = System.nanoTime();
+        private int used;
+        private long suppressed;
+
+        synchronized long tryAcquire(long now) {
+            if (now - startedAt >= WINDOW_NANOS) {
+                startedAt = now;
+                used = 0;
+            }
+            if (used >= permitsPerSecond) {
+                suppressed++;
+                return -1;
+            }
+            used++;
+            long skipped = suppressed;
+            suppressed = 0;
+            return skipped;
+        }
+    }
+}
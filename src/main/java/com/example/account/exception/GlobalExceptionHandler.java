@@ -1,25 +1,54 @@
 package com.example.account.exception;
 
 import com.example.account.dto.ErrorResponse;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.type.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.servlet.http.HttpServletRequest;
+
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private final ErrorLogLimiter errorLogLimiter;
+    private final AccountMetrics accountMetrics;
+
+    public GlobalExceptionHandler(
+            @Value("${account.error-log.permits-per-second:10}") int permitsPerSecond,
+            AccountMetrics accountMetrics
+    ) {
+        this.errorLogLimiter = new ErrorLogLimiter(permitsPerSecond);
+        this.accountMetrics = accountMetrics;
+    }
+
     @ExceptionHandler(AccountException.class)
-    public ErrorResponse handle(AccountException e) {
-        log.error("{} is occured", e.getErrorMessage());
+    public ErrorResponse handle(AccountException e, HttpServletRequest request) {
+        ErrorCode errorCode = e.getErrorCode() == null ? ErrorCode.INTERNAL_ERROR : e.getErrorCode();
+        long suppressed = errorLogLimiter.tryAcquire(errorCode);
+        if (suppressed >= 0) {
+            log.warn("{} is occured (suppressed: {})", e.getErrorMessage(), suppressed);
+        }
+        record(errorCode, request);
 
-        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
+        return ErrorResponse.of(e.getErrorCode(), e.getErrorMessage());
     }
 
     @ExceptionHandler(Exception.class)
-    public ErrorResponse handle(Exception e) {
-        log.error("{} is occured", e.getMessage());
+    public ErrorResponse handle(Exception e, HttpServletRequest request) {
+        long suppressed = errorLogLimiter.tryAcquire(ErrorCode.INTERNAL_ERROR);
+        if (suppressed >= 0) {
+            log.error("{} is occured (suppressed: {})", e.getMessage(), suppressed, e);
+        }
+        record(ErrorCode.INTERNAL_ERROR, request);
+
+        return ErrorResponse.of(ErrorCode.INTERNAL_ERROR, ErrorCode.INTERNAL_ERROR.getDescription());
+    }
 
-        return new ErrorResponse(ErrorCode.INTERNAL_ERROR, ErrorCode.INTERNAL_ERROR.getDescription());
+    private void record(ErrorCode errorCode, HttpServletRequest request) {
+        accountMetrics.countError(errorCode);
+        request.setAttribute(AccountMetrics.ERROR_CODE_ATTRIBUTE, errorCode.name());
     }
 }
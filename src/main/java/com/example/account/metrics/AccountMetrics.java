@@ -0,0 +1,67 @@
+package com.example.account.metrics;
+
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 업무 단위 counter 모음.
+ * 요청마다 meter 를 찾지 않도록 미리 만들어 두고, uri 별 summary 는 처음 쓸 때 만들어 둔다.
+ */
+@Component
+public class AccountMetrics {
+    public static final String ERROR_CODE_ATTRIBUTE = AccountMetrics.class.getName() + ".errorCode";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<ErrorCode, Counter> errorCounters = new EnumMap<>(ErrorCode.class);
+    private final Map<TransactionType, Map<TransactionResultType, Counter>> transactionCounters =
+            new EnumMap<>(TransactionType.class);
+    // uri 는 handler 의 pattern 이라 종류가 endpoint 수만큼으로 정해져 있다.
+    private final ConcurrentMap<String, DistributionSummary> sqlStatementSummaries = new ConcurrentHashMap<>();
+
+    public AccountMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            errorCounters.put(errorCode, Counter.builder("account.errors")
+                    .description("Business errors returned to clients")
+                    .tag("error_code", errorCode.name())
+                    .register(meterRegistry));
+        }
+        for (TransactionType transactionType : TransactionType.values()) {
+            Map<TransactionResultType, Counter> counters = new EnumMap<>(TransactionResultType.class);
+            for (TransactionResultType resultType : TransactionResultType.values()) {
+                counters.put(resultType, Counter.builder("account.transactions")
+                        .description("Recorded balance transactions")
+                        .tag("type", transactionType.name())
+                        .tag("result", resultType.name())
+                        .register(meterRegistry));
+            }
+            transactionCounters.put(transactionType, counters);
+        }
+    }
+
+    public void countError(ErrorCode errorCode) {
+        errorCounters.get(errorCode).increment();
+    }
+
+    public void countTransaction(TransactionType transactionType, TransactionResultType resultType) {
+        transactionCounters.get(transactionType).get(resultType).increment();
+    }
+
+    public void recordSqlStatements(String uri, int statements) {
+        sqlStatementSummaries.computeIfAbsent(uri, key -> DistributionSummary.builder("account.sql.statements")
+                        .description("SQL statements issued by Hibernate per request")
+                        .tag("uri", key)
+                        .register(meterRegistry))
+                .record(statements);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.account.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * DataSource 에서 나온 Statement 의 실행을 요청 단위로 센다.
+ * JDBC 수준에서 세므로 Hibernate 가 만든 SQL 뿐 아니라 JdbcTemplate 으로 직접 실행하는 SQL 도 포함된다.
+ * counter 는 스레드에 붙어 있으므로 요청 시작 시 reset 하고 끝날 때 count 를 읽는다.
+ * 요청을 다른 스레드로 나눠 처리하는 곳은 {@link #propagate} 로 같은 counter 를 넘긴다.
+ */
+public final class SqlStatementCounter {
+    private static final ThreadLocal<AtomicInteger> COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    private SqlStatementCounter() {
+    }
+
+    public static DataSource countStatements(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource);
+    }
+
+    public static void reset() {
+        COUNT.set(new AtomicInteger());
+    }
+
+    public static int count() {
+        return COUNT.get().get();
+    }
+
+    /**
+     * 호출한 스레드의 counter 로 세도록 work 를 감싼다. 감싼 work 는 다른 스레드에서 실행해도 된다.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        AtomicInteger counter = COUNT.get();
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(counter);
+            try {
+                return work.get();
+            } finally {
+                COUNT.set(previous);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if (target instanceof Statement && method.getName().startsWith("execute")) {
+                        COUNT.get().incrementAndGet();
+                    }
+                    return wrap(method, invoke(method, target, args));
+                });
+    }
+
+    // DataSource 의 Connection 과 Connection 의 Statement 만 감싸고 나머지는 그대로 돌려준다.
+    @SuppressWarnings("unchecked")
+    private static Object wrap(Method method, Object result) {
+        Class<?> returnType = method.getReturnType();
+        if (result == null || !returnType.isInterface()) {
+            return result;
+        }
+        if (method.getDeclaringClass() == DataSource.class && returnType == Connection.class) {
+            return proxy(Connection.class, (Connection) result);
+        }
+        if (Connection.class.isAssignableFrom(method.getDeclaringClass())
+                && Statement.class.isAssignableFrom(returnType)) {
+            return proxy((Class<Object>) returnType, result);
+        }
+        return result;
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -3,8 +3,17 @@ package com.example.account.repository;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +25,32 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    // Redis lock 을 쓸 수 없을 때 SELECT ... FOR UPDATE 로 계좌를 잠근다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    Optional<Account> findForUpdateByAccountNumber(String accountNumber);
+
+    // 보류 금액은 상대값으로만 바꾼다. version 을 올리지 않으므로 lock 없는 취소, 만료가 잔액 갱신과 충돌하지 않는다.
+    @Modifying
+    @Query(value = "UPDATE account SET held_balance = held_balance + :delta WHERE id = :id", nativeQuery = true)
+    int addHeldBalance(@Param("id") Long id, @Param("delta") long delta);
+
+    // Redis 잔액 엔진의 거래를 반영한다. 같은 계좌를 읽어 둔 DB 경로의 갱신이 이 변경을 덮어쓰지 않도록 version 을 올린다.
+    @Modifying
+    @Query(value = "UPDATE account SET balance = balance + :delta, version = version + 1 WHERE id = :id", nativeQuery = true)
+    int addBalance(@Param("id") Long id, @Param("delta") long delta);
+
     List<Account> findAccountsByAccountUser(AccountUser accountUser);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    @Query("select a.accountUser.id as userId, count(a) as accountCount from Account a " +
+            "where a.accountUser.id in :userIds group by a.accountUser.id")
+    List<AccountCountPerUser> countAccountsByAccountUserIds(@Param("userIds") Collection<Long> userIds);
+
+    interface AccountCountPerUser {
+        Long getUserId();
+
+        Long getAccountCount();
+    }
 }
@@ -0,0 +1,43 @@
+package com.example.account.repository;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.type.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, Long> {
+    Optional<BalanceHold> findByHoldId(String holdId);
+
+    // 아직 HELD 일 때만 바꾼다. 매입, 취소, 만료가 경합해도 한쪽만 1 을 받는다.
+    @Modifying
+    @Query("update BalanceHold h set h.status = :status, h.closedAt = :closedAt " +
+            "where h.id = :id and h.status = com.example.account.type.HoldStatus.HELD")
+    int close(@Param("id") Long id, @Param("status") HoldStatus status,
+              @Param("closedAt") LocalDateTime closedAt);
+
+    @Modifying
+    @Query("update BalanceHold h set h.status = com.example.account.type.HoldStatus.CAPTURED, h.closedAt = :closedAt " +
+            "where h.id = :id and h.status = com.example.account.type.HoldStatus.HELD and h.expiresAt > :closedAt")
+    int capture(@Param("id") Long id, @Param("closedAt") LocalDateTime closedAt);
+
+    // 만료 처리 중인 행을 매입, 취소가 동시에 닫지 못하게 잠근다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<BalanceHold> findByStatusAndExpiresAtBefore(HoldStatus status, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("update BalanceHold h set h.status = com.example.account.type.HoldStatus.EXPIRED, h.closedAt = :closedAt " +
+            "where h.id in :ids and h.status = com.example.account.type.HoldStatus.HELD")
+    int expireAll(@Param("ids") Collection<Long> ids, @Param("closedAt") LocalDateTime closedAt);
+}
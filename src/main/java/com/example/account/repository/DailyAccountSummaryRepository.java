@@ -0,0 +1,26 @@
+package com.example.account.repository;
+
+import com.example.account.domain.DailyAccountSummary;
+import com.example.account.dto.DailySummaryDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyAccountSummaryRepository extends JpaRepository<DailyAccountSummary, Long> {
+    List<DailyAccountSummary> findByAccountIdAndSummaryDateBetweenOrderBySummaryDate(
+            Long accountId, LocalDate from, LocalDate to);
+
+    @Query("select new com.example.account.dto.DailySummaryDto(" +
+            "s.summaryDate, sum(s.useCount), sum(s.useAmount), sum(s.cancelCount), sum(s.cancelAmount), " +
+            "sum(s.failedCount), sum(s.failedAmount)) " +
+            "from DailyAccountSummary s " +
+            "where s.accountUserId = :userId and s.summaryDate between :from and :to " +
+            "group by s.summaryDate order by s.summaryDate")
+    List<DailySummaryDto> sumByUserAndDate(
+            @Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
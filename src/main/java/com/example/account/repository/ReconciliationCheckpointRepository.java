@@ -0,0 +1,12 @@
+package com.example.account.repository;
+
+import com.example.account.domain.ReconciliationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpoint, Long> {
+    Optional<ReconciliationCheckpoint> findFirstByOrderByIdDesc();
+}
@@ -0,0 +1,60 @@
+package com.example.account.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자 → 소유 계좌 번호 캐시.
+ *
+ * 계좌의 소유자는 바뀌지 않으므로 한 번 확인한 (사용자, 계좌) 쌍은 사용자 조회 없이 소유 검증을 통과시킨다.
+ * 소유자가 있는 계좌라는 것은 사용자가 존재한다는 뜻이기도 하다.
+ * 무효화 규칙:
+ * - 계좌 해지 시 해당 쌍을 지운다.
+ * - 사용자 삭제 기능은 없다. 생기면 evictUser 를 호출해야 한다.
+ * - 그 밖의 직접 DB 변경에 대비해 마지막 접근 후 일정 시간이 지나면 만료된다.
+ * 적중률은 cache.gets{cache=accountOwnership} 로 확인한다.
+ */
+@Component
+public class AccountOwnershipCache {
+    private final Cache<Long, Set<String>> cache;
+
+    public AccountOwnershipCache(
+            @Value("${account.ownership-cache.maximum-size:100000}") long maximumSize,
+            @Value("${account.ownership-cache.expire-after-access-minutes:30}") long expireAfterAccessMinutes,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accountOwnership");
+    }
+
+    public boolean isOwner(Long userId, String accountNumber) {
+        Set<String> accountNumbers = cache.getIfPresent(userId);
+        return accountNumbers != null && accountNumbers.contains(accountNumber);
+    }
+
+    public void put(Long userId, String accountNumber) {
+        cache.get(userId, id -> ConcurrentHashMap.newKeySet()).add(accountNumber);
+    }
+
+    public void evict(Long userId, String accountNumber) {
+        Set<String> accountNumbers = cache.getIfPresent(userId);
+        if (accountNumbers != null) {
+            accountNumbers.remove(accountNumber);
+        }
+    }
+
+    public void evictUser(Long userId) {
+        cache.invalidate(userId);
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.account.service;
 
+import com.example.account.aop.ShardContext;
+import com.example.account.aop.ShardKey;
+import com.example.account.aop.ShardRouted;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.BulkCreateAccount;
+import com.example.account.dto.CreateAccount;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
@@ -10,32 +15,43 @@ import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountOwnershipCache accountOwnershipCache;
+    private final BloomFilterService bloomFilterService;
+    private final ShardRouter shardRouter;
+    private final RedisBalanceCache redisBalanceCache;
     /**
      * 사용자가 있는지 조회
      * 계좌 번호 생성
      * 계좌 저장하고 정보를 넘긴다.
+     * 새 계좌의 shard 는 ShardRoutingAspect 가 돌아가며 고르고, 계좌 번호는 그 shard 에 대응되는 번호로 매긴다.
      * */
+    @ShardRouted
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
         AccountUser accountUser = getAccountUser(accountUserRepository, userId);
 
         validateCreateAccount(accountUser);
 
-        String newAccountNumber = accountRepository.
-                findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber()) + 1) + "")
-                .orElse("1000000000");
+        String newAccountNumber = String.valueOf(
+                shardRouter.nextAccountNumber(ShardContext.currentOrDefault(), findLastAccountNumber()));
 
         Account savedAccount = accountRepository.save(
                 Account.builder()
@@ -46,18 +62,97 @@ public class AccountService {
                         .registeredAt(LocalDateTime.now())
                         .build()
         );
+        bloomFilterService.addAccount(savedAccount.getAccountNumber());
 
         return AccountDto.fromEntity(savedAccount);
     }
 
+    /**
+     * 사용자 조회와 계좌 개수 확인을 한 번씩의 쿼리로 끝내고,
+     * 통과한 항목에 연속된 계좌 번호를 매겨 한 번에 저장한다.
+     * 실패한 항목은 나머지 항목의 생성을 막지 않고 결과에 errorCode 로 남는다.
+     * 한 트랜잭션이므로 한 번에 만드는 계좌는 모두 같은 shard 에 들어간다.
+     */
+    @ShardRouted
+    @Transactional
+    public List<BulkCreateAccount.Item> createAccounts(List<CreateAccount.Request> requests) {
+        Set<Long> userIds = requests.stream()
+                .map(CreateAccount.Request::getUserId)
+                .collect(Collectors.toSet());
+
+        Map<Long, AccountUser> users = accountUserRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(AccountUser::getId, Function.identity()));
+
+        // 사용자의 계좌는 여러 shard 에 흩어져 있으므로 shard 별 개수를 더한다.
+        Map<Long, Long> accountCounts = new HashMap<>();
+        shardRouter.fanOut(shard -> accountRepository.countAccountsByAccountUserIds(users.keySet()))
+                .forEach(counts -> counts.forEach(count ->
+                        accountCounts.merge(count.getUserId(), count.getAccountCount(), Long::sum)));
+
+        int shard = ShardContext.currentOrDefault();
+        Long lastAccountNumber = findLastAccountNumber();
+
+        LocalDateTime registeredAt = LocalDateTime.now();
+        BulkCreateAccount.Item[] results = new BulkCreateAccount.Item[requests.size()];
+        List<Account> newAccounts = new ArrayList<>();
+        List<Integer> newAccountIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateAccount.Request request = requests.get(i);
+            AccountUser accountUser = users.get(request.getUserId());
+            if (accountUser == null) {
+                results[i] = BulkCreateAccount.Item.failure(i, request.getUserId(), ErrorCode.USER_NOT_FOUND);
+                continue;
+            }
+
+            // 같은 요청 안에서 앞서 생성한 계좌도 개수에 포함한다.
+            long count = accountCounts.getOrDefault(accountUser.getId(), 0L);
+            if (count >= MAX_ACCOUNT_PER_USER) {
+                results[i] = BulkCreateAccount.Item.failure(i, request.getUserId(), ErrorCode.MAX_ACCOUNT_PER_USER_10);
+                continue;
+            }
+            accountCounts.put(accountUser.getId(), count + 1);
+
+            lastAccountNumber = shardRouter.nextAccountNumber(shard, lastAccountNumber);
+            newAccounts.add(Account.builder()
+                    .accountUser(accountUser)
+                    .accountStatus(AccountStatus.IN_USE)
+                    .accountNumber(String.valueOf(lastAccountNumber))
+                    .balance(request.getInitialBalance())
+                    .registeredAt(registeredAt)
+                    .build());
+            newAccountIndexes.add(i);
+        }
+
+        // hibernate.jdbc.batch_size 설정으로 insert 가 batch 로 묶인다.
+        List<Account> savedAccounts = accountRepository.saveAll(newAccounts);
+        for (int i = 0; i < savedAccounts.size(); i++) {
+            int index = newAccountIndexes.get(i);
+            bloomFilterService.addAccount(savedAccounts.get(i).getAccountNumber());
+            results[index] = BulkCreateAccount.Item.success(index, AccountDto.fromEntity(savedAccounts.get(i)));
+        }
+
+        return List.of(results);
+    }
+
+    private Long findLastAccountNumber() {
+        return accountRepository.findFirstByOrderByIdDesc()
+                .map(account -> Long.parseLong(account.getAccountNumber()))
+                .orElse(null);
+    }
+
     private void validateCreateAccount(AccountUser accountUser) {
-        if (accountRepository.countAccountByAccountUser(accountUser) >= 10) {
+        int accountCount = shardRouter.fanOut(shard -> accountRepository.countAccountByAccountUser(accountUser))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (accountCount >= MAX_ACCOUNT_PER_USER) {
             throw new AccountException(ErrorCode.MAX_ACCOUNT_PER_USER_10);
         }
     }
 
+    @ShardRouted
     @Transactional
-    public AccountDto deleteAccount(Long userId, String accountNumber) {
+    public AccountDto deleteAccount(Long userId, @ShardKey String accountNumber) {
         AccountUser accountUser = getAccountUser(accountUserRepository, userId);
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
@@ -68,6 +163,8 @@ public class AccountService {
         account.setAccountStatus(AccountStatus.UNREGISTERED);
         account.setUnRegisteredAt(LocalDateTime.now());
         accountRepository.save(account);
+        accountOwnershipCache.evict(accountUser.getId(), accountNumber);
+        redisBalanceCache.updateStatus(accountNumber, AccountStatus.UNREGISTERED);
 
         return AccountDto.fromEntity(account);
     }
@@ -92,13 +189,15 @@ public class AccountService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<AccountDto> getAccountsByUserId(Long userId) {
         AccountUser accountUser = getAccountUser(accountUserRepository, userId);
 
-        List<Account> accounts = accountRepository.findAccountsByAccountUser(accountUser);
-
-        return accounts.stream()
-                        .map(AccountDto::fromEntity)
+        // shard 마다 병렬로 조회해서 shard 순서대로 합친다.
+        return shardRouter.fanOut(shard -> accountRepository.findAccountsByAccountUser(accountUser))
+                .stream()
+                .flatMap(List::stream)
+                .map(AccountDto::fromEntity)
                 .collect(Collectors.toList());
     }
 }
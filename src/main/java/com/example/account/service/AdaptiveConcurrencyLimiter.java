@@ -0,0 +1,69 @@
+package com.example.account.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD 방식의 동시 처리 한도.
+ *
+ * 요청이 지연 기준 안에 끝나고 한도의 절반 이상이 쓰이고 있으면 한도를 1 늘리고,
+ * 지연 기준을 넘기거나 의존성 실패(drop)로 끝나면 backoffRatio 만큼 곱해서 줄인다.
+ * 한도를 넘는 요청은 기다리지 않고 바로 거절되므로 의존성이 느려져도 대기열이 쌓이지 않는다.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdMillis, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (current * 2 >= limit) {
+                // 한도를 충분히 쓰고 있을 때만 늘려서, 한가할 때 한도가 무한정 커지지 않게 한다.
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    /**
+     * 한도 조정에 쓰지 않을 요청을 끝낸다. 자리만 돌려주고 한도는 그대로 둔다.
+     */
+    public void ignore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
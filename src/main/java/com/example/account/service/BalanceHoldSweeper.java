@@ -0,0 +1,101 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.BalanceHold;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.type.HoldStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 유효 기간이 지난 승인을 batch 로 만료시키고 보류 금액을 푼다.
+ * 만료된 행을 한 번에 잠그고 상태를 한 UPDATE 로 바꾼 뒤, 계좌마다 합계를 한 번만 빼므로
+ * 한 계좌에 만료된 승인이 많아도 계좌 UPDATE 는 batch 당 한 번이다. 계좌 lock 은 잡지 않는다.
+ */
+@Slf4j
+@Component
+public class BalanceHoldSweeper {
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final AccountRepository accountRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisBalanceCache redisBalanceCache;
+    private final int batchSize;
+    private final Counter expiredCounter;
+
+    public BalanceHoldSweeper(
+            BalanceHoldRepository balanceHoldRepository,
+            AccountRepository accountRepository,
+            ShardRouter shardRouter,
+            TransactionTemplate transactionTemplate,
+            RedisBalanceCache redisBalanceCache,
+            MeterRegistry meterRegistry,
+            @Value("${account.hold.sweep-batch-size:500}") int batchSize
+    ) {
+        this.balanceHoldRepository = balanceHoldRepository;
+        this.accountRepository = accountRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.redisBalanceCache = redisBalanceCache;
+        this.batchSize = batchSize;
+        this.expiredCounter = Counter.builder("account.holds.expired")
+                .description("Authorization holds released by the expiry sweeper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${account.hold.sweep-interval-ms:60000}")
+    public void sweep() {
+        shardRouter.forEachShard(shard -> {
+            int expired;
+            do {
+                expired = sweepBatch();
+            } while (expired == batchSize);
+        });
+    }
+
+    // 현재 ShardContext 의 shard 에서 한 batch 를 만료시킨다.
+    int sweepBatch() {
+        Integer expired = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<BalanceHold> holds = balanceHoldRepository.findByStatusAndExpiresAtBefore(
+                    HoldStatus.HELD, now, PageRequest.of(0, batchSize));
+            if (holds.isEmpty()) {
+                return 0;
+            }
+
+            List<Long> ids = holds.stream().map(BalanceHold::getId).collect(Collectors.toList());
+            // 다른 sweeper 가 먼저 닫은 행이 섞였으면 보류 금액을 두 번 풀지 않도록 batch 를 되돌린다.
+            if (balanceHoldRepository.expireAll(ids, now) != ids.size()) {
+                status.setRollbackOnly();
+                log.warn("Skip hold expiry batch, {} holds were closed concurrently", ids.size());
+                return 0;
+            }
+
+            Map<Long, Long> releasedPerAccount = holds.stream().collect(Collectors.groupingBy(
+                    hold -> hold.getAccount().getId(), Collectors.summingLong(BalanceHold::getAmount)));
+            Map<Long, Account> accounts = holds.stream().map(BalanceHold::getAccount).collect(
+                    Collectors.toMap(Account::getId, account -> account, (first, second) -> first));
+            releasedPerAccount.forEach((accountId, released) -> {
+                redisBalanceCache.applyChange(accounts.get(accountId), 0L, -released);
+                accountRepository.addHeldBalance(accountId, -released);
+            });
+            return holds.size();
+        });
+
+        int count = expired == null ? 0 : expired;
+        expiredCounter.increment(count);
+        return count;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * 존재하지 않는 거래 ID / 계좌번호 요청을 lock 이나 DB 조회 없이 거절하기 위한 Bloom filter.
+ * <p>
+ * 시작 후 모든 shard 의 현재 테이블, 떼어낸 파티션과 열 저장소를 한 번씩 훑어 다시 만들고, 그 뒤로는 insert 할 때마다 추가한다.
+ * 다시 만드는 동안에는 판단하지 않고 모두 통과시키며, 그 사이 추가된 값은 새 filter 에도 넣는다.
+ * rebuild 시작 전에 add 를 지나 scan 뒤에 commit 된 행은 어느 쪽에도 들어가지 않으므로,
+ * 공개하기 전에 시작 무렵부터 만들어진 행을 한 번 더 읽는다.
+ * <p>
+ * 인스턴스가 여럿이면 다른 인스턴스가 만든 계좌·거래를 모르므로 redis-enabled 를 켜야 한다.
+ * 로컬 filter 에 없을 때만 Redis mirror 를 확인하고, Redis 를 쓸 수 없으면 통과시킨다.
+ */
+@Slf4j
+@Service
+public class BloomFilterService {
+    private static final String TRANSACTION_MIRROR_KEY = "ACBF:transaction";
+    private static final String ACCOUNT_MIRROR_KEY = "ACBF:account";
+    private static final int SCAN_FETCH_SIZE = 1000;
+    // 시작 전에 insert 하고 아직 commit 하지 않은 트랜잭션까지 덮도록 시작 시각보다 앞에서부터 다시 읽는다.
+    private static final Duration REPLAY_MARGIN = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionPartitionManager transactionPartitionManager;
+    private final ColdTransactionStore coldTransactionStore;
+    private final RedissonClient redissonClient;
+    private final ShardRouter shardRouter;
+
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final long transactionCapacity;
+    private final long accountCapacity;
+    private final double falsePositiveProbability;
+    private final Counter transactionRejections;
+    private final Counter accountRejections;
+
+    private volatile Filters live;
+    private volatile Filters building;
+
+    public BloomFilterService(
+            JdbcTemplate jdbcTemplate,
+            TransactionPartitionManager transactionPartitionManager,
+            ColdTransactionStore coldTransactionStore,
+            RedissonClient redissonClient,
+            ShardRouter shardRouter,
+            MeterRegistry meterRegistry,
+            @Value("${account.bloom-filter.enabled:true}") boolean enabled,
+            @Value("${account.bloom-filter.redis-enabled:false}") boolean redisEnabled,
+            @Value("${account.bloom-filter.transaction-capacity:1000000}") long transactionCapacity,
+            @Value("${account.bloom-filter.account-capacity:100000}") long accountCapacity,
+            @Value("${account.bloom-filter.false-positive-probability:0.001}") double falsePositiveProbability
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionPartitionManager = transactionPartitionManager;
+        this.coldTransactionStore = coldTransactionStore;
+        this.redissonClient = redissonClient;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.transactionCapacity = transactionCapacity;
+        this.accountCapacity = accountCapacity;
+        this.falsePositiveProbability = falsePositiveProbability;
+
+        this.transactionRejections = rejectionCounter(meterRegistry, "transaction");
+        this.accountRejections = rejectionCounter(meterRegistry, "account");
+
+        Gauge.builder("account.bloom.transactions", this, service -> service.approximateSize(true))
+                .description("Approximate number of transaction ids in the bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("account.bloom.accounts", this, service -> service.approximateSize(false))
+                .description("Approximate number of account numbers in the bloom filter")
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String filter) {
+        return Counter.builder("account.bloom.rejections")
+                .description("Requests rejected because the bloom filter proved the key does not exist")
+                .tag("filter", filter)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::rebuild)
+                .exceptionally(e -> {
+                    log.error("Bloom filter rebuild failed, lookups stay unfiltered", e);
+                    return null;
+                });
+    }
+
+    public void rebuild() {
+        Filters filters = new Filters(
+                new ScalableBloomFilter(transactionCapacity, falsePositiveProbability),
+                new ScalableBloomFilter(accountCapacity, falsePositiveProbability));
+        building = filters;
+        LocalDateTime replayFrom = LocalDateTime.now().minus(REPLAY_MARGIN);
+        long start = System.nanoTime();
+
+        // 떼어낸 파티션 목록을 읽는 listener 보다 먼저 실행될 수 있으므로 직접 읽는다.
+        transactionPartitionManager.loadDetachedPartitions();
+
+        JdbcTemplate scan = scanTemplate();
+        scanAccountNumbers(scan, filters.accounts::add);
+        scanTransactionIds(scan, filters.transactions::add);
+
+        if (redisEnabled) {
+            mirror(scan);
+        }
+
+        replayCreatedSince(scan, replayFrom, filters);
+        live = filters;
+        building = null;
+        log.info("Bloom filters rebuilt in {} ms ({} accounts, {} transactions)",
+                (System.nanoTime() - start) / 1_000_000,
+                filters.accounts.approximateSize(), filters.transactions.approximateSize());
+    }
+
+    public void addTransaction(String transactionId) {
+        add(transactionId, true);
+    }
+
+    public void addAccount(String accountNumber) {
+        add(accountNumber, false);
+    }
+
+    /**
+     * @return false 면 확실히 없는 거래 ID
+     */
+    public boolean mightContainTransaction(String transactionId) {
+        return mightContain(transactionId, true);
+    }
+
+    /**
+     * @return false 면 확실히 없는 계좌번호
+     */
+    public boolean mightContainAccount(String accountNumber) {
+        return mightContain(accountNumber, false);
+    }
+
+    private void add(String value, boolean transaction) {
+        // building 을 먼저 읽는다. rebuild 는 live 를 바꾼 뒤 building 을 지우므로
+        // building 이 비어 있으면 live 는 이미 새 filter 다.
+        Filters next = building;
+        if (next != null) {
+            next.get(transaction).add(value);
+        }
+        Filters current = live;
+        if (current != null && current != next) {
+            current.get(transaction).add(value);
+        }
+        if (redisEnabled) {
+            // RBloomFilter 에는 비동기 add 가 없으므로 insert 경로를 막지 않도록 따로 보낸다.
+            CompletableFuture.runAsync(() -> mirrorOf(transaction).add(value))
+                    .exceptionally(e -> {
+                        log.warn("Failed to mirror bloom filter entry: {}", e.getMessage());
+                        return null;
+                    });
+        }
+    }
+
+    private boolean mightContain(String value, boolean transaction) {
+        Filters current = live;
+        if (!enabled || current == null || value == null) {
+            return true;
+        }
+        if (current.get(transaction).mightContain(value)) {
+            return true;
+        }
+        if (redisEnabled && mirrorContains(value, transaction)) {
+            // 다른 인스턴스가 추가한 값이다.
+            current.get(transaction).add(value);
+            return true;
+        }
+
+        (transaction ? transactionRejections : accountRejections).increment();
+        return false;
+    }
+
+    private boolean mirrorContains(String value, boolean transaction) {
+        try {
+            return mirrorOf(transaction).contains(value);
+        } catch (Exception e) {
+            log.warn("Bloom filter mirror unavailable: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void mirror(JdbcTemplate scan) {
+        // 처음 만드는 인스턴스만 전체를 채운다. 이미 있으면 각 인스턴스의 insert 로 채워지고 있다.
+        RBloomFilter<String> transactions = mirrorOf(true);
+        if (transactions.tryInit(transactionCapacity, falsePositiveProbability)) {
+            scanTransactionIds(scan, transactions::add);
+        }
+        RBloomFilter<String> accounts = mirrorOf(false);
+        if (accounts.tryInit(accountCapacity, falsePositiveProbability)) {
+            scanAccountNumbers(scan, accounts::add);
+        }
+    }
+
+    // 떼어낸 파티션과 열 저장소에는 새 행이 들어가지 않으므로 현재 테이블만 읽는다.
+    private void replayCreatedSince(JdbcTemplate scan, LocalDateTime since, Filters filters) {
+        Timestamp from = Timestamp.valueOf(since);
+        shardRouter.forEachShard(shard -> {
+            scan.query("SELECT account_number FROM account WHERE created_at >= ?", rs -> {
+                filters.accounts.add(rs.getString(1));
+            }, from);
+            scan.query("SELECT transaction_id FROM transaction WHERE created_at >= ?", rs -> {
+                filters.transactions.add(rs.getString(1));
+            }, from);
+        });
+    }
+
+    private void scanAccountNumbers(JdbcTemplate scan, Consumer<String> consumer) {
+        shardRouter.forEachShard(shard -> scan.query("SELECT account_number FROM account", rs -> {
+            consumer.accept(rs.getString(1));
+        }));
+    }
+
+    private void scanTransactionIds(JdbcTemplate scan, Consumer<String> consumer) {
+        shardRouter.forEachShard(shard -> {
+            scan.query("SELECT transaction_id FROM transaction", rs -> {
+                consumer.accept(rs.getString(1));
+            });
+            for (Integer partitionKey : new ArrayList<>(transactionPartitionManager.getDetachedPartitions())) {
+                scan.query("SELECT transaction_id FROM " + transactionPartitionManager.getPartitionTable(partitionKey),
+                        rs -> {
+                            consumer.accept(rs.getString(1));
+                        });
+            }
+        });
+        coldTransactionStore.forEachTransactionId(consumer);
+    }
+
+    // 공유 JdbcTemplate 의 설정을 바꾸지 않도록 전체 scan 용 template 을 따로 만든다.
+    private JdbcTemplate scanTemplate() {
+        JdbcTemplate scan = new JdbcTemplate(jdbcTemplate.getDataSource());
+        scan.setFetchSize(SCAN_FETCH_SIZE);
+        return scan;
+    }
+
+    private RBloomFilter<String> mirrorOf(boolean transaction) {
+        return redissonClient.getBloomFilter(
+                transaction ? TRANSACTION_MIRROR_KEY : ACCOUNT_MIRROR_KEY, StringCodec.INSTANCE);
+    }
+
+    private double approximateSize(boolean transaction) {
+        Filters current = live;
+        return current == null ? 0 : current.get(transaction).approximateSize();
+    }
+
+    private static final class Filters {
+        private final ScalableBloomFilter transactions;
+        private final ScalableBloomFilter accounts;
+
+        private Filters(ScalableBloomFilter transactions, ScalableBloomFilter accounts) {
+            this.transactions = transactions;
+            this.accounts = accounts;
+        }
+
+        private ScalableBloomFilter get(boolean transaction) {
+            return transaction ? transactions : accounts;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.account.service;
+
+import com.example.account.type.CircuitState;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 연속 실패가 failureThreshold 번 나면 열리고, openMillis 가 지나면 한 요청만 시험 삼아 보낸다(HALF_OPEN).
+ * 시험 요청이 성공하면 닫히고 실패하면 다시 열린다.
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized boolean allowRequest() {
+        if (state == CircuitState.CLOSED) {
+            return true;
+        }
+        if (state == CircuitState.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = CircuitState.HALF_OPEN;
+            return true;
+        }
+        // HALF_OPEN 에서는 시험 요청 하나의 결과를 기다린다.
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        state = CircuitState.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = CircuitState.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * 허용받은 요청이 Redis 상태와 상관없는 이유(인터럽트, 대기열 초과)로 끝났을 때 부른다.
+     * 시험 요청이었다면 OPEN 으로 돌려서 다음 요청이 바로 다시 시험하게 한다. openedAt 은 이미 지났다.
+     */
+    public synchronized void releasePermission() {
+        if (state == CircuitState.HALF_OPEN) {
+            state = CircuitState.OPEN;
+        }
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TransactionPartitionManager 가 떼어낸 월 파티션 테이블을 열 저장소 파일로 옮기고 테이블을 지운다.
+ * 파일을 먼저 열어둔 뒤 테이블을 지우므로 조회가 끊기는 구간이 없다.
+ * 한 달치를 한 번에 읽지 않고 (transacted_at, id) 순으로 chunkSize 행씩 읽어 바로 파일에 넘긴다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ColdTransactionArchiver {
+    private static final String SELECT_COLUMNS = "SELECT t.id, a.account_number, t.transaction_type,"
+            + " t.transaction_result_type, t.amount, t.balance_snapshot, t.transaction_id, t.transacted_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionPartitionManager transactionPartitionManager;
+    private final ShardRouter shardRouter;
+    private final ColdTransactionStore coldTransactionStore;
+
+    @Value("${account.cold-store.archive-chunk-size:10000}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${account.cold-store.archive-cron:0 0 4 1 * *}")
+    public void archiveDetachedPartitions() throws IOException {
+        for (Integer partitionKey : new ArrayList<>(transactionPartitionManager.getDetachedPartitions())) {
+            archive(partitionKey);
+        }
+    }
+
+    public void archive(int partitionKey) throws IOException {
+        String table = transactionPartitionManager.getPartitionTable(partitionKey);
+        if (coldTransactionStore.contains(partitionKey)) {
+            dropArchived(partitionKey, table);
+            return;
+        }
+
+        long[] archived = {0L};
+        // 열 저장소 파일은 shard 구분 없이 월마다 하나이므로 모든 shard 의 파티션을 차례로 넘긴다.
+        // shard 안에서는 transactedAt 순이라 shard 경계의 블록 하나만 차이 값이 커진다.
+        coldTransactionStore.write(partitionKey, consumer -> shardRouter.forEachShard(shard -> {
+            Timestamp lastTransactedAt = null;
+            long lastId = 0L;
+            List<Row> chunk;
+            do {
+                chunk = readChunk(table, lastTransactedAt, lastId);
+                for (Row row : chunk) {
+                    consumer.accept(row.transaction);
+                }
+                if (!chunk.isEmpty()) {
+                    Row last = chunk.get(chunk.size() - 1);
+                    lastTransactedAt = Timestamp.valueOf(last.transaction.getTransactedAt());
+                    lastId = last.id;
+                    archived[0] += chunk.size();
+                }
+            } while (chunk.size() == chunkSize);
+        }));
+
+        log.info("Archived {} transactions of partition {} into cold store", archived[0], partitionKey);
+        transactionPartitionManager.drop(partitionKey);
+    }
+
+    // 파일은 다 쓴 뒤에 옮겨지므로, 이미 있으면 지난 실행이 파일을 쓰고 테이블을 지우기 전에 멈춘 것이다.
+    private void dropArchived(int partitionKey, String table) {
+        long[] rows = {0L};
+        shardRouter.forEachShard(shard ->
+                rows[0] += jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class));
+        int archived = coldTransactionStore.getRowCount(partitionKey);
+        if (rows[0] != archived) {
+            throw new IllegalStateException("Cold store has " + archived + " transactions of partition "
+                    + partitionKey + " but the partition table has " + rows[0]);
+        }
+
+        log.info("Partition {} is already in cold store, dropping the table", partitionKey);
+        transactionPartitionManager.drop(partitionKey);
+    }
+
+    private List<Row> readChunk(String table, Timestamp lastTransactedAt, long lastId) {
+        String from = " FROM " + table + " t JOIN account a ON a.id = t.account_id";
+        String orderBy = " ORDER BY t.transacted_at, t.id LIMIT ?";
+        if (lastTransactedAt == null) {
+            return jdbcTemplate.query(SELECT_COLUMNS + from + orderBy, this::mapRow, chunkSize);
+        }
+        return jdbcTemplate.query(SELECT_COLUMNS + from
+                        + " WHERE t.transacted_at > ? OR (t.transacted_at = ? AND t.id > ?)" + orderBy,
+                this::mapRow, lastTransactedAt, lastTransactedAt, lastId, chunkSize);
+    }
+
+    private Row mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Row(rs.getLong("id"), TransactionDto.builder()
+                .accountNumber(rs.getString("account_number"))
+                .transactionType(TransactionType.valueOf(rs.getString("transaction_type")))
+                .transactionResultType(TransactionResultType.valueOf(rs.getString("transaction_result_type")))
+                .amount(rs.getLong("amount"))
+                .balanceSnapshot(rs.getLong("balance_snapshot"))
+                .transactionId(rs.getString("transaction_id"))
+                .transactedAt(rs.getTimestamp("transacted_at").toLocalDateTime())
+                .build());
+    }
+
+    @RequiredArgsConstructor
+    private static class Row {
+        private final long id;
+        private final TransactionDto transaction;
+    }
+}
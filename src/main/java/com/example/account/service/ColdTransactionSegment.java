@@ -0,0 +1,195 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * {@link ColdTransactionSegmentWriter} 가 만든 파일 하나를 memory-map 해서 읽는다.
+ * 사전(dictionary)만 heap 에 올리고 나머지는 필요한 행만 buffer 에서 직접 푼다.
+ */
+final class ColdTransactionSegment {
+    private static final int IDS = 0;
+    private static final int ACCOUNT_CODES = 1;
+    private static final int TYPE_CODES = 2;
+    private static final int RESULT_CODES = 3;
+    private static final int AMOUNT_OFFSETS = 4;
+    private static final int AMOUNT_DATA = 5;
+    private static final int BALANCE_OFFSETS = 6;
+    private static final int BALANCE_DATA = 7;
+    private static final int TRANSACTED_AT_OFFSETS = 8;
+    private static final int TRANSACTED_AT_DATA = 9;
+    private static final int ROW_POSITIONS = 10;
+    private static final int DICTIONARIES = 11;
+
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final int idLength;
+    private final int blockSize;
+    private final int[] sections;
+    private final String[] accountNumbers;
+    private final TransactionType[] transactionTypes;
+    private final TransactionResultType[] resultTypes;
+
+    private ColdTransactionSegment(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != ColdTransactionSegmentWriter.MAGIC
+                || buffer.getInt(4) != ColdTransactionSegmentWriter.VERSION) {
+            throw new IOException("Not a cold transaction segment");
+        }
+        rowCount = buffer.getInt(8);
+        idLength = buffer.getInt(12);
+        blockSize = buffer.getInt(16);
+        sections = new int[ColdTransactionSegmentWriter.SECTION_COUNT];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = buffer.getInt(20 + i * Integer.BYTES);
+        }
+
+        int dictionaries = sections[DICTIONARIES];
+        byte[] dictionaryBytes = new byte[buffer.capacity() - dictionaries];
+        for (int i = 0; i < dictionaryBytes.length; i++) {
+            dictionaryBytes[i] = buffer.get(dictionaries + i);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(dictionaryBytes));
+        accountNumbers = readDictionary(in);
+        String[] typeNames = readDictionary(in);
+        transactionTypes = new TransactionType[typeNames.length];
+        for (int i = 0; i < typeNames.length; i++) {
+            transactionTypes[i] = TransactionType.valueOf(typeNames[i]);
+        }
+        String[] resultNames = readDictionary(in);
+        resultTypes = new TransactionResultType[resultNames.length];
+        for (int i = 0; i < resultNames.length; i++) {
+            resultTypes[i] = TransactionResultType.valueOf(resultNames[i]);
+        }
+    }
+
+    static ColdTransactionSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // map 한 buffer 는 channel 을 닫아도 유효하다.
+            return new ColdTransactionSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    Optional<TransactionDto> find(String transactionId) {
+        byte[] key = transactionId.getBytes(StandardCharsets.US_ASCII);
+        if (key.length > idLength) {
+            return Optional.empty();
+        }
+
+        int low = 0;
+        int high = rowCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compared = compareId(mid, key);
+            if (compared < 0) {
+                low = mid + 1;
+            } else if (compared > 0) {
+                high = mid - 1;
+            } else {
+                return Optional.of(read(rowOf(mid), transactionId));
+            }
+        }
+        return Optional.empty();
+    }
+
+    void forEachTransactionId(Consumer<String> consumer) {
+        for (int index = 0; index < rowCount; index++) {
+            consumer.accept(readId(index));
+        }
+    }
+
+    // 정렬된 거래 ID 색인의 위치를 행 위치로 바꾼다.
+    private int rowOf(int index) {
+        return buffer.getInt(sections[ROW_POSITIONS] + index * Integer.BYTES);
+    }
+
+    private TransactionDto read(int row, String transactionId) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumbers[buffer.getInt(sections[ACCOUNT_CODES] + row * Integer.BYTES)])
+                .transactionType(transactionTypes[buffer.get(sections[TYPE_CODES] + row)])
+                .transactionResultType(resultTypes[buffer.get(sections[RESULT_CODES] + row)])
+                .amount(readDelta(AMOUNT_OFFSETS, AMOUNT_DATA, row))
+                .balanceSnapshot(readDelta(BALANCE_OFFSETS, BALANCE_DATA, row))
+                .transactionId(transactionId)
+                .transactedAt(fromEpochMicros(readDelta(TRANSACTED_AT_OFFSETS, TRANSACTED_AT_DATA, row)))
+                .build();
+    }
+
+    private long readDelta(int offsetSection, int dataSection, int row) {
+        int block = row / blockSize;
+        int position = sections[dataSection] + buffer.getInt(sections[offsetSection] + block * Integer.BYTES);
+        long value = 0;
+        for (int i = block * blockSize; i <= row; i++) {
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                raw |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            value += (raw >>> 1) ^ -(raw & 1);
+        }
+        return value;
+    }
+
+    private int compareId(int index, byte[] key) {
+        int base = sections[IDS] + index * idLength;
+        for (int i = 0; i < idLength; i++) {
+            int stored = buffer.get(base + i) & 0xFF;
+            int wanted = i < key.length ? key[i] & 0xFF : 0;
+            if (stored != wanted) {
+                return stored - wanted;
+            }
+        }
+        return 0;
+    }
+
+    private String readId(int index) {
+        int base = sections[IDS] + index * idLength;
+        int length = 0;
+        while (length < idLength && buffer.get(base + length) != 0) {
+            length++;
+        }
+        byte[] id = new byte[length];
+        for (int i = 0; i < length; i++) {
+            id[i] = buffer.get(base + i);
+        }
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    private static String[] readDictionary(DataInputStream in) throws IOException {
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+
+    static long toEpochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
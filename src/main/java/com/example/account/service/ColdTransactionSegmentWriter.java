@@ -0,0 +1,325 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 거래를 받은 순서대로 열(column) 단위 파일에 쓴다.
+ * 호출하는 쪽이 transactedAt 순으로 넘기면 transactedAt, 잔액 열의 차이 값이 작아져 파일이 작아진다.
+ *
+ * <pre>
+ * header   : magic, version, rowCount, idLength, blockSize, 섹션별 시작 위치
+ * ids      : 고정 길이 transactionId (정렬됨, 이진 탐색용)
+ * account  : 계좌번호 사전 코드 (int)
+ * type     : 거래 종류 사전 코드 (byte)
+ * result   : 거래 결과 사전 코드 (byte)
+ * amount / balanceSnapshot / transactedAt
+ *          : blockSize 행마다 시작 위치를 두고, 블록 안에서는 직전 값과의 차이를 zigzag varint 로 저장
+ * rows     : ids 순서대로 그 거래의 행 위치 (int)
+ * dict     : 계좌번호, 거래 종류, 거래 결과 사전
+ * </pre>
+ * 행 하나를 읽을 때는 transactionId 로 이진 탐색해 행 위치를 찾은 뒤 해당 블록만 풀면 된다.
+ * <p>
+ * 한 달치 거래를 heap 에 모으지 않도록 열마다 작업 디렉터리의 임시 파일에 이어 쓰고, 마지막에 header 뒤로 이어 붙인다.
+ * heap 에는 사전과 거래 ID 정렬에 쓰는 행 위치(행마다 int 하나)만 남는다.
+ */
+final class ColdTransactionSegmentWriter implements Closeable {
+    static final int MAGIC = 0x41435443;
+    static final int VERSION = 2;
+    static final int BLOCK_SIZE = 64;
+    static final int SECTION_COUNT = 12;
+    static final int HEADER_SIZE = 5 * Integer.BYTES + SECTION_COUNT * Integer.BYTES;
+
+    private final Path workDirectory;
+    private final List<Column> columns = new ArrayList<>();
+    private final Dictionary accounts = new Dictionary();
+    private final Dictionary types = new Dictionary();
+    private final Dictionary results = new Dictionary();
+    // 길이(byte) + ASCII, 다 모은 뒤 고정 길이로 바꿔 정렬한다.
+    private final Column ids;
+    private final Column accountCodes;
+    private final Column typeCodes;
+    private final Column resultCodes;
+    private final DeltaColumn amounts;
+    private final DeltaColumn balances;
+    private final DeltaColumn transactedAts;
+    private int rowCount;
+    private int idLength;
+
+    ColdTransactionSegmentWriter(Path directory) throws IOException {
+        workDirectory = Files.createTempDirectory(directory, "segment-");
+        try {
+            ids = column("ids");
+            accountCodes = column("account");
+            typeCodes = column("type");
+            resultCodes = column("result");
+            amounts = new DeltaColumn(column("amount.offsets"), column("amount.data"));
+            balances = new DeltaColumn(column("balance.offsets"), column("balance.data"));
+            transactedAts = new DeltaColumn(column("transactedAt.offsets"), column("transactedAt.data"));
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    void add(TransactionDto row) {
+        byte[] id = row.getTransactionId().getBytes(StandardCharsets.US_ASCII);
+        idLength = Math.max(idLength, id.length);
+        try {
+            ids.out.writeByte(id.length);
+            ids.out.write(id);
+            accountCodes.out.writeInt(accounts.code(row.getAccountNumber()));
+            typeCodes.out.writeByte(types.code(row.getTransactionType().name()));
+            resultCodes.out.writeByte(results.code(row.getTransactionResultType().name()));
+            amounts.add(row.getAmount());
+            balances.add(row.getBalanceSnapshot());
+            transactedAts.add(ColdTransactionSegment.toEpochMicros(row.getTransactedAt()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        rowCount++;
+    }
+
+    void writeTo(Path path) throws IOException {
+        for (Column column : new ArrayList<>(columns)) {
+            column.close();
+        }
+
+        Column sortedIds = column("ids.sorted");
+        Column rowPositions = column("rows");
+        writeSortedIds(sortedIds.out, rowPositions.out);
+        sortedIds.close();
+        rowPositions.close();
+
+        ByteArrayOutputStream dictionaries = new ByteArrayOutputStream();
+        DataOutputStream dictionaryOut = new DataOutputStream(dictionaries);
+        accounts.writeTo(dictionaryOut);
+        types.writeTo(dictionaryOut);
+        results.writeTo(dictionaryOut);
+
+        Path[] sections = {
+                sortedIds.file,
+                accountCodes.file,
+                typeCodes.file,
+                resultCodes.file,
+                amounts.offsets.file, amounts.data.file,
+                balances.offsets.file, balances.data.file,
+                transactedAts.offsets.file, transactedAts.data.file,
+                rowPositions.file
+        };
+
+        // 다 쓴 뒤에 옮겨서 읽는 쪽이 쓰다 만 파일을 보지 않도록 한다.
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rowCount);
+            out.writeInt(idLength);
+            out.writeInt(BLOCK_SIZE);
+            long offset = HEADER_SIZE;
+            for (Path section : sections) {
+                out.writeInt(toOffset(offset));
+                offset += Files.size(section);
+            }
+            out.writeInt(toOffset(offset));
+            for (Path section : sections) {
+                Files.copy(section, out);
+            }
+            dictionaries.writeTo(out);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 거래 ID 를 고정 길이로 옮겨 map 한 뒤, 행 위치만 heap 에 두고 ID 순으로 정렬한다.
+    private void writeSortedIds(DataOutputStream sortedIds, DataOutputStream rowPositions) throws IOException {
+        Path padded = workDirectory.resolve("ids.padded");
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(ids.file)));
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(padded))) {
+            byte[] id = new byte[idLength];
+            for (int row = 0; row < rowCount; row++) {
+                int length = in.readUnsignedByte();
+                in.readFully(id, 0, length);
+                Arrays.fill(id, length, idLength, (byte) 0);
+                out.write(id);
+            }
+        }
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(padded, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int[] positions = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            positions[i] = i;
+        }
+        sort(positions, (left, right) -> compareIds(buffer, left, right));
+
+        ByteBuffer view = buffer.duplicate();
+        byte[] id = new byte[idLength];
+        for (int position : positions) {
+            view.position(position * idLength);
+            view.get(id);
+            sortedIds.write(id);
+            rowPositions.writeInt(position);
+        }
+    }
+
+    private int compareIds(MappedByteBuffer buffer, int left, int right) {
+        int leftBase = left * idLength;
+        int rightBase = right * idLength;
+        for (int i = 0; i < idLength; i++) {
+            int compared = (buffer.get(leftBase + i) & 0xFF) - (buffer.get(rightBase + i) & 0xFF);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return 0;
+    }
+
+    // int 배열을 boxing 없이 정렬하는 병합 정렬
+    private static void sort(int[] values, IntComparator comparator) {
+        int[] source = values;
+        int[] target = new int[values.length];
+        for (int width = 1; width < values.length; width *= 2) {
+            for (int low = 0; low < values.length; low += 2 * width) {
+                int middle = Math.min(low + width, values.length);
+                int high = Math.min(low + 2 * width, values.length);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    if (left < middle && (right >= high || comparator.compare(source[left], source[right]) <= 0)) {
+                        target[i] = source[left++];
+                    } else {
+                        target[i] = source[right++];
+                    }
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != values) {
+            System.arraycopy(source, 0, values, 0, values.length);
+        }
+    }
+
+    private static int toOffset(long offset) throws IOException {
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Cold transaction segment exceeds 2GB");
+        }
+        return (int) offset;
+    }
+
+    private Column column(String name) throws IOException {
+        Column column = new Column(workDirectory.resolve(name));
+        columns.add(column);
+        return column;
+    }
+
+    /**
+     * 임시 파일을 모두 지운다. writeTo 를 마쳤든 중간에 실패했든 호출한다.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Column column : columns) {
+            column.close();
+        }
+        try (Stream<Path> files = Files.list(workDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(workDirectory);
+    }
+
+    @FunctionalInterface
+    private interface IntComparator {
+        int compare(int left, int right);
+    }
+
+    private static class Column implements Closeable {
+        private final Path file;
+        private final DataOutputStream out;
+
+        Column(Path file) throws IOException {
+            this.file = file;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static class Dictionary {
+        private final Map<String, Integer> codes = new LinkedHashMap<>();
+
+        int code(String value) {
+            return codes.computeIfAbsent(value, key -> codes.size());
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(codes.size());
+            for (String value : codes.keySet()) {
+                out.writeUTF(value);
+            }
+        }
+    }
+
+    private static class DeltaColumn {
+        private final Column offsets;
+        private final Column data;
+        private int count;
+        private long previous;
+
+        DeltaColumn(Column offsets, Column data) {
+            this.offsets = offsets;
+            this.data = data;
+        }
+
+        void add(long value) throws IOException {
+            if (count % BLOCK_SIZE == 0) {
+                offsets.out.writeInt(data.out.size());
+                previous = 0;
+            }
+            writeVarLong(data.out, zigZag(value - previous));
+            previous = value;
+            count++;
+        }
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static void writeVarLong(OutputStream out, long value) {
+        try {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 취소 기간이 지난 월 파티션을 보관하는 읽기 전용 열(column) 저장소.
+ * 월(yyyyMM)마다 파일 하나이고, 거래 ID 의 월 정보로 파일 하나만 찾아본다.
+ * 이미 파일이 있는 월은 덮어쓰지 않는다.
+ */
+@Slf4j
+@Service
+public class ColdTransactionStore {
+    private static final String FILE_PREFIX = "transactions-";
+    private static final String FILE_SUFFIX = ".col";
+
+    private final Path directory;
+    private final Map<Integer, ColdTransactionSegment> segments = new ConcurrentHashMap<>();
+
+    public ColdTransactionStore(@Value("${account.cold-store.directory:./cold-store}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int partitionKey = Integer.parseInt(
+                        name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+                segments.put(partitionKey, ColdTransactionSegment.open(file));
+            }
+        }
+        log.info("Opened {} cold transaction segments", segments.size());
+    }
+
+    public boolean contains(int partitionKey) {
+        return segments.containsKey(partitionKey);
+    }
+
+    public int getRowCount(int partitionKey) {
+        ColdTransactionSegment segment = segments.get(partitionKey);
+        return segment == null ? 0 : segment.getRowCount();
+    }
+
+    public void write(int partitionKey, List<TransactionDto> transactions) throws IOException {
+        List<TransactionDto> rows = new ArrayList<>(transactions);
+        rows.sort(Comparator.comparing(TransactionDto::getTransactedAt)
+                .thenComparing(TransactionDto::getTransactionId));
+        write(partitionKey, rows::forEach);
+    }
+
+    /**
+     * 거래를 넘겨받는 순서대로 쓴다. 한 달치 거래를 목록으로 모으지 않고 나눠 읽으면서 넘길 수 있다.
+     * 이미 그 월의 파일이 있으면 FileAlreadyExistsException 으로 거절한다.
+     */
+    public void write(int partitionKey, TransactionSource transactions) throws IOException {
+        Path file = segmentFile(partitionKey);
+        if (segments.containsKey(partitionKey) || Files.exists(file)) {
+            throw new FileAlreadyExistsException(file.toString());
+        }
+        try (ColdTransactionSegmentWriter writer = new ColdTransactionSegmentWriter(directory)) {
+            transactions.forEach(writer::add);
+            writer.writeTo(file);
+        }
+        segments.put(partitionKey, ColdTransactionSegment.open(file));
+    }
+
+    private Path segmentFile(int partitionKey) throws IOException {
+        Files.createDirectories(directory);
+        return directory.resolve(FILE_PREFIX + partitionKey + FILE_SUFFIX);
+    }
+
+    public Optional<TransactionDto> find(String transactionId) {
+        Integer partitionKey = TransactionIdGenerator.partitionKeyOf(transactionId);
+        if (partitionKey == null) {
+            return Optional.empty();
+        }
+
+        ColdTransactionSegment segment = segments.get(partitionKey);
+        return segment == null ? Optional.empty() : segment.find(transactionId);
+    }
+
+    public void forEachTransactionId(Consumer<String> consumer) {
+        for (ColdTransactionSegment segment : segments.values()) {
+            segment.forEachTransactionId(consumer);
+        }
+    }
+
+    @FunctionalInterface
+    public interface TransactionSource {
+        void forEach(Consumer<TransactionDto> consumer);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLockContext;
+import com.example.account.aop.ConcurrencyLimited;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * RateLimitAspect 다음, LockAopAspect 보다 먼저 실행된다.
+ * 측정하는 지연 시간에는 DB 처리와 Redis 호출이 들어가므로 의존성이 느려지면 한도가 줄어든다.
+ * 계좌 lock 을 기다린 시간은 한 계좌에 몰린 요청 때문이므로 지연 시간에서 뺀다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class ConcurrencyLimitAspect {
+
+    private final ConcurrencyLimitService concurrencyLimitService;
+
+    @Around("@annotation(concurrencyLimited)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            ConcurrencyLimited concurrencyLimited
+    ) throws Throwable {
+        if (!concurrencyLimitService.isEnabled()) {
+            return pjp.proceed();
+        }
+
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimitService.limiter(concurrencyLimited.value());
+        if (!limiter.tryAcquire()) {
+            throw new AccountException(ErrorCode.SERVICE_OVERLOADED);
+        }
+
+        long start = System.nanoTime();
+        long lockWaitBefore = AccountLockContext.lockWaitNanos();
+        boolean dropped = false;
+        boolean ignored = false;
+        try {
+            return pjp.proceed();
+        } catch (AccountException e) {
+            // 업무 오류는 정상 응답으로 본다. lock 경합은 한 계좌에 몰린 요청이라 의존성 상태와 무관하므로
+            // 한도를 줄이지도 늘리지도 않는다.
+            ignored = e.getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_LOCK
+                    || e.getErrorCode() == ErrorCode.ACCOUNT_LOCK_QUEUE_FULL;
+            throw e;
+        } catch (RuntimeException e) {
+            dropped = true;
+            throw e;
+        } finally {
+            if (ignored) {
+                limiter.ignore();
+            } else {
+                long lockWait = AccountLockContext.lockWaitNanos() - lockWaitBefore;
+                limiter.release(System.nanoTime() - start - lockWait, dropped);
+            }
+        }
+    }
+}
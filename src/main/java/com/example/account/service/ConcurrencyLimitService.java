@@ -0,0 +1,65 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이름별 AdaptiveConcurrencyLimiter 를 만들고 현재 한도와 처리 중인 요청 수를
+ * account.concurrency.limit / account.concurrency.in_flight gauge 로 노출한다.
+ */
+@Service
+public class ConcurrencyLimitService {
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdMillis;
+    private final double backoffRatio;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitService(
+            @Value("${account.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${account.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${account.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${account.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${account.concurrency-limit.latency-threshold-ms:250}") long latencyThresholdMillis,
+            @Value("${account.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdMillis = latencyThresholdMillis;
+        this.backoffRatio = backoffRatio;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AdaptiveConcurrencyLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, this::register);
+    }
+
+    private AdaptiveConcurrencyLimiter register(String name) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, latencyThresholdMillis, backoffRatio);
+        Gauge.builder("account.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive in-flight limit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("account.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the limiter")
+                .tag("name", name)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
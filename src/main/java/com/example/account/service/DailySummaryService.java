@@ -0,0 +1,150 @@
+package com.example.account.service;
+
+import com.example.account.aop.ShardKey;
+import com.example.account.aop.ShardRouted;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.DailySummaryDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.DailyAccountSummaryRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌별 일 단위 집계를 거래 저장 시점에 증분으로 갱신하고, 조회는 집계 테이블만 읽는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailySummaryService {
+    private static final long MAX_RANGE_DAYS = 366;
+    private static final String INCREMENT_SQL = "UPDATE daily_account_summary SET"
+            + " use_count = use_count + ?, use_amount = use_amount + ?,"
+            + " cancel_count = cancel_count + ?, cancel_amount = cancel_amount + ?,"
+            + " failed_count = failed_count + ?, failed_amount = failed_amount + ?, updated_at = ?"
+            + " WHERE account_id = ? AND summary_date = ?";
+    // id 는 엔티티와 같은 Hibernate sequence 에서 받는다.
+    private static final String INSERT_SQL = "INSERT INTO daily_account_summary"
+            + " (id, account_id, account_user_id, summary_date, use_count, use_amount, cancel_count,"
+            + " cancel_amount, failed_count, failed_amount, created_at, updated_at)"
+            + " VALUES (NEXT VALUE FOR hibernate_sequence, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final DailyAccountSummaryRepository dailyAccountSummaryRepository;
+    private final AccountRepository accountRepository;
+    private final AccountUserRepository accountUserRepository;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 호출한 쪽의 트랜잭션에 참여한다. 실패 거래는 계좌 lock 밖에서 저장되므로 같은 계좌의 하루 행을
+     * 여러 트랜잭션이 동시에 갱신할 수 있다. 그래서 읽고 고쳐 쓰지 않고 상대값 UPDATE 로 더하고,
+     * 행이 없을 때만 INSERT 한다. 그날 첫 거래가 동시에 INSERT 하면 늦은 쪽은 unique 제약에 걸리므로
+     * 먼저 만들어진 행에 다시 UPDATE 한다.
+     * Hibernate 를 거쳐 실패한 INSERT 는 트랜잭션 전체를 rollback-only 로 만들므로 JDBC 로 직접 실행한다.
+     */
+    @Transactional
+    public void record(Transaction transaction) {
+        Account account = transaction.getAccount();
+        LocalDate summaryDate = transaction.getTransactedAt().toLocalDate();
+        long[] delta = deltaOf(transaction);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (increment(account.getId(), summaryDate, delta, now) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL,
+                    account.getId(), account.getAccountUser().getId(), summaryDate,
+                    delta[0], delta[1], delta[2], delta[3], delta[4], delta[5], now, now);
+        } catch (DuplicateKeyException e) {
+            increment(account.getId(), summaryDate, delta, now);
+        }
+    }
+
+    // 사용 건수/금액, 취소 건수/금액, 실패 건수/금액 순서
+    private static long[] deltaOf(Transaction transaction) {
+        int offset;
+        if (transaction.getTransactionResultType() == TransactionResultType.F) {
+            offset = 4;
+        } else if (transaction.getTransactionType() == TransactionType.USE) {
+            offset = 0;
+        } else {
+            offset = 2;
+        }
+
+        long[] delta = new long[6];
+        delta[offset] = 1;
+        delta[offset + 1] = transaction.getAmount();
+        return delta;
+    }
+
+    private int increment(Long accountId, LocalDate summaryDate, long[] delta, LocalDateTime now) {
+        return jdbcTemplate.update(INCREMENT_SQL,
+                delta[0], delta[1], delta[2], delta[3], delta[4], delta[5], now, accountId, summaryDate);
+    }
+
+    @ShardRouted
+    @Transactional(readOnly = true)
+    public List<DailySummaryDto> getAccountSummaries(@ShardKey String accountNumber, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        return dailyAccountSummaryRepository
+                .findByAccountIdAndSummaryDateBetweenOrderBySummaryDate(account.getId(), from, to)
+                .stream()
+                .map(DailySummaryDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySummaryDto> getUserSummaries(Long userId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        // existsById 는 count 쿼리라 2차 캐시를 타지 않는다.
+        accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        List<List<DailySummaryDto>> shardSummaries = shardRouter.fanOut(
+                shard -> dailyAccountSummaryRepository.sumByUserAndDate(userId, from, to));
+        if (shardSummaries.size() == 1) {
+            return shardSummaries.get(0);
+        }
+
+        // 사용자의 계좌가 여러 shard 에 있으면 shard 별 일 합계를 날짜 기준으로 다시 더한다.
+        Map<LocalDate, DailySummaryDto> merged = new TreeMap<>();
+        shardSummaries.forEach(summaries -> summaries.forEach(summary ->
+                merged.merge(summary.getSummaryDate(), summary, DailySummaryService::sum)));
+        return List.copyOf(merged.values());
+    }
+
+    private static DailySummaryDto sum(DailySummaryDto a, DailySummaryDto b) {
+        return new DailySummaryDto(a.getSummaryDate(),
+                a.getUseCount() + b.getUseCount(),
+                a.getUseAmount() + b.getUseAmount(),
+                a.getCancelCount() + b.getCancelCount(),
+                a.getCancelAmount() + b.getCancelAmount(),
+                a.getFailedCount() + b.getFailedCount(),
+                a.getFailedAmount() + b.getFailedAmount());
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new AccountException(ErrorCode.INVALID_DATE_RANGE);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.account.service;
+
+import com.example.account.domain.ReconciliationCheckpoint;
+import com.example.account.dto.ReconciliationReport;
+import com.example.account.repository.ReconciliationCheckpointRepository;
+import com.example.account.type.MismatchType;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌 잔액이 거래 이력과 맞는지 검사한다.
+ *
+ * 계좌 id 범위를 fork-join 으로 나누고, 범위마다 계좌를 읽은 뒤 거래를 (account_id, id) 순으로 흘려 읽으며
+ * balanceSnapshot 이 직전 snapshot 에 거래 금액을 반영한 값인지, 계좌 잔액이 마지막 snapshot 과 같은지 확인한다.
+ * 한 번에 메모리에 올라가는 것은 범위 하나의 계좌뿐이다.
+ * 계좌와 그 거래는 항상 같은 shard 에 있으므로 shard 마다 따로 나눠 검사한다.
+ */
+@Slf4j
+@Service
+public class LedgerReconciliationService {
+    private static final int MAX_REPORTED_MISMATCHES = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate snapshotTemplate;
+    private final int partitionSize;
+    private final int parallelism;
+
+    public LedgerReconciliationService(
+            JdbcTemplate jdbcTemplate,
+            ReconciliationCheckpointRepository checkpointRepository,
+            PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter,
+            @Value("${account.reconciliation.partition-size:1000}") int partitionSize,
+            @Value("${account.reconciliation.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.shardRouter = shardRouter;
+        this.partitionSize = partitionSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        // 범위 하나는 한 시점의 snapshot 에서 계좌와 거래를 같이 읽어야 검사 도중의 거래를 오탐하지 않는다.
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public ReconciliationReport reconcile(boolean incremental) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        LocalDateTime since = incremental
+                ? checkpointRepository.findFirstByOrderByIdDesc()
+                        .map(ReconciliationCheckpoint::getCheckpointAt)
+                        .orElse(null)
+                : null;
+
+        Result result = new Result();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            shardRouter.forEachShard(shard -> {
+                Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                        "SELECT MIN(id) AS low, MAX(id) AS high FROM account");
+                if (bounds.get("low") != null) {
+                    long low = ((Number) bounds.get("low")).longValue();
+                    long high = ((Number) bounds.get("high")).longValue();
+                    pool.invoke(new RangeTask(shard, low, high, since, result));
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        checkpointRepository.save(ReconciliationCheckpoint.builder()
+                .checkpointAt(startedAt)
+                .checkedAccounts(result.accounts.get())
+                .mismatches(result.mismatchCount.get())
+                .build());
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000L;
+        log.info("Reconciled {} accounts / {} transactions in {}ms, {} mismatches",
+                result.accounts.get(), result.transactions.get(), elapsedMillis, result.mismatchCount.get());
+
+        return ReconciliationReport.builder()
+                .incremental(incremental)
+                .since(since)
+                .startedAt(startedAt)
+                .elapsedMillis(elapsedMillis)
+                .checkedAccounts(result.accounts.get())
+                .checkedTransactions(result.transactions.get())
+                .mismatchCount(result.mismatchCount.get())
+                .mismatches(new ArrayList<>(result.mismatches))
+                .build();
+    }
+
+    private void verifyRange(int shard, long low, long high, LocalDateTime since, Result result) {
+        // fork-join 스레드에는 ShardContext 가 없으므로 범위마다 shard 를 지정한다.
+        shardRouter.onShard(shard, () -> {
+            verifyRange(low, high, since, result);
+            return null;
+        });
+    }
+
+    private void verifyRange(long low, long high, LocalDateTime since, Result result) {
+        snapshotTemplate.executeWithoutResult(status -> {
+            Map<Long, AccountState> accounts = new HashMap<>();
+            String accountSql = "SELECT a.id, a.account_number, a.balance FROM account a WHERE a.id BETWEEN ? AND ?";
+            List<Object> accountArgs = new ArrayList<>(List.of(low, high));
+            if (since != null) {
+                accountSql += " AND (a.updated_at > ? OR EXISTS"
+                        + " (SELECT 1 FROM transaction x WHERE x.account_id = a.id AND x.created_at > ?))";
+                accountArgs.add(since);
+                accountArgs.add(since);
+            }
+            jdbcTemplate.query(accountSql, rs -> {
+                accounts.put(rs.getLong("id"), new AccountState(rs.getString("account_number"), rs.getLong("balance")));
+            }, accountArgs.toArray());
+            if (accounts.isEmpty()) {
+                return;
+            }
+
+            jdbcTemplate.query(
+                    "SELECT t.account_id, t.transaction_id, t.transaction_type, t.transaction_result_type,"
+                            + " t.amount, t.balance_snapshot FROM transaction t"
+                            + " WHERE t.account_id BETWEEN ? AND ? ORDER BY t.account_id, t.id",
+                    rs -> {
+                        AccountState account = accounts.get(rs.getLong("account_id"));
+                        if (account == null) {
+                            return;
+                        }
+                        result.transactions.incrementAndGet();
+                        account.apply(
+                                rs.getString("transaction_id"),
+                                TransactionType.valueOf(rs.getString("transaction_type")),
+                                TransactionResultType.valueOf(rs.getString("transaction_result_type")),
+                                rs.getLong("amount"),
+                                rs.getLong("balance_snapshot"),
+                                result);
+                    },
+                    low, high);
+
+            for (AccountState account : accounts.values()) {
+                account.finish(result);
+            }
+            result.accounts.addAndGet(accounts.size());
+        });
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private final int shard;
+        private final long low;
+        private final long high;
+        private final LocalDateTime since;
+        private final Result result;
+
+        RangeTask(int shard, long low, long high, LocalDateTime since, Result result) {
+            this.shard = shard;
+            this.low = low;
+            this.high = high;
+            this.since = since;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low < partitionSize) {
+                verifyRange(shard, low, high, since, result);
+                return;
+            }
+            long mid = low + (high - low) / 2;
+            invokeAll(new RangeTask(shard, low, mid, since, result),
+                    new RangeTask(shard, mid + 1, high, since, result));
+        }
+    }
+
+    private static class AccountState {
+        private final String accountNumber;
+        private final long balance;
+        private Long lastSnapshot;
+
+        AccountState(String accountNumber, long balance) {
+            this.accountNumber = accountNumber;
+            this.balance = balance;
+        }
+
+        void apply(String transactionId, TransactionType transactionType, TransactionResultType resultType,
+                   long amount, long snapshot, Result result) {
+            // 실패 거래는 잔액을 바꾸지 않고 계좌 lock 밖에서 기록되므로 snapshot 이 id 순서와 맞지 않을 수 있다.
+            if (resultType == TransactionResultType.F) {
+                return;
+            }
+            if (lastSnapshot != null) {
+                long expected = lastSnapshot + (transactionType == TransactionType.USE ? -amount : amount);
+                if (expected != snapshot) {
+                    result.add(accountNumber, MismatchType.SNAPSHOT_CHAIN_BROKEN, transactionId, expected, snapshot);
+                }
+            }
+            lastSnapshot = snapshot;
+        }
+
+        void finish(Result result) {
+            if (lastSnapshot != null && lastSnapshot != balance) {
+                result.add(accountNumber, MismatchType.BALANCE_MISMATCH, null, lastSnapshot, balance);
+            }
+        }
+    }
+
+    private static class Result {
+        private final AtomicLong accounts = new AtomicLong();
+        private final AtomicLong transactions = new AtomicLong();
+        private final AtomicLong mismatchCount = new AtomicLong();
+        private final ConcurrentLinkedQueue<ReconciliationReport.Mismatch> mismatches = new ConcurrentLinkedQueue<>();
+
+        void add(String accountNumber, MismatchType mismatchType, String transactionId, long expected, long actual) {
+            if (mismatchCount.incrementAndGet() <= MAX_REPORTED_MISMATCHES) {
+                mismatches.add(ReconciliationReport.Mismatch.builder()
+                        .accountNumber(accountNumber)
+                        .mismatchType(mismatchType)
+                        .transactionId(transactionId)
+                        .expected(expected)
+                        .actual(actual)
+                        .build());
+            }
+        }
+    }
+}
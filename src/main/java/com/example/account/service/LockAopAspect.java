@@ -1,33 +1,64 @@
 package com.example.account.service;
 
-import com.example.account.aop.AccountLockIdInterface;
-import lombok.RequiredArgsConstructor;
+import com.example.account.aop.AccountLock;
+import com.example.account.type.LockMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code @AccountLock} 메소드를 첫 번째 인자(계좌번호)의 계좌 lock 안에서 실행한다.
+ * service 메소드에서는 lock 이 트랜잭션보다 바깥에 있어야 commit 이 끝난 뒤에 풀리므로 순서를 명시한다.
+ */
 @Aspect
 @Component
 @Slf4j
-@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 4)
 public class LockAopAspect {
 
     private final LockService lockService;
+    private final Map<LockMode, Timer> holdTimers = new EnumMap<>(LockMode.class);
+
+    public LockAopAspect(LockService lockService, MeterRegistry meterRegistry) {
+        this.lockService = lockService;
+        for (LockMode mode : LockMode.values()) {
+            holdTimers.put(mode, Timer.builder("account.lock.hold")
+                    .description("Time an account lock is held by one request")
+                    .tag("mode", mode.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
 
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(accountNumber, ..)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
-            AccountLockIdInterface request
-    )throws Throwable{
+            AccountLock accountLock,
+            String accountNumber
+    ) throws Throwable {
+        return proceedLocked(pjp, accountNumber, accountLock.mode());
+    }
+
+    private Object proceedLocked(ProceedingJoinPoint pjp, String accountNumber, LockMode mode) throws Throwable {
         //lock 획득 시도
-        lockService.lock(request.getAccountNumber());
+        lockService.lock(accountNumber, mode);
+        long acquired = System.nanoTime();
         try {
             return pjp.proceed();
         }finally {
             //lock 해제
-            lockService.unLock(request.getAccountNumber());
+            lockService.unLock(accountNumber, mode);
+            holdTimers.get(mode).record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
         }
     }
 }
@@ -1,41 +1,198 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLockContext;
+import com.example.account.config.LockProperties;
 import com.example.account.exception.AccountException;
+import com.example.account.type.CircuitState;
 import com.example.account.type.ErrorCode;
-import lombok.RequiredArgsConstructor;
+import com.example.account.type.LockMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Redis 분산 lock. Redis 호출이 연달아 실패하면 circuit 을 열고,
+ * 열려 있는 동안에는 Redis 를 기다리지 않고 DB 행 lock(SELECT ... FOR UPDATE)으로 대신한다.
+ * <p>
+ * FAIR 모드는 Redisson fair lock 으로 먼저 기다린 요청부터 lock 을 준다. 일반 RLock 은 풀릴 때마다
+ * 대기자가 다시 경쟁하므로 hot 계좌에서는 일부 요청만 계속 밀려 timeout 이 난다.
+ * 두 모드 모두 계좌별 대기 요청 수를 제한해서, 차례가 올 가망이 없는 요청은 기다리지 않고 거절한다.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LockService {
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MILLIS = 5000L;
+
     private final RedissonClient redissonClient;
+    private final LockProperties lockProperties;
+    private final ConcurrentMap<String, Integer> waiters = new ConcurrentHashMap<>();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(FAILURE_THRESHOLD, OPEN_MILLIS);
+    private final Counter fallbackCounter;
+    private final Map<LockMode, Timer> acquiredWaitTimers = new EnumMap<>(LockMode.class);
+    private final Map<LockMode, Timer> timeoutWaitTimers = new EnumMap<>(LockMode.class);
+
+    public LockService(RedissonClient redissonClient, LockProperties lockProperties, MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.lockProperties = lockProperties;
+        this.fallbackCounter = Counter.builder("account.lock.fallback")
+                .description("Account locks taken as database row locks because Redis was unavailable")
+                .register(meterRegistry);
+        for (LockMode mode : LockMode.values()) {
+            acquiredWaitTimers.put(mode, waitTimer(meterRegistry, mode, "acquired"));
+            timeoutWaitTimers.put(mode, waitTimer(meterRegistry, mode, "timeout"));
+        }
+        Gauge.builder("account.lock.circuit.open", circuitBreaker,
+                        breaker -> breaker.getState() == CircuitState.CLOSED ? 0 : 1)
+                .description("1 while the Redis lock circuit breaker is not closed")
+                .register(meterRegistry);
+        Gauge.builder("account.lock.waiters", waiters,
+                        map -> map.values().stream().mapToInt(Integer::intValue).sum())
+                .description("Requests waiting for an account lock on this instance")
+                .register(meterRegistry);
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, LockMode mode, String result) {
+        return Timer.builder("account.lock.wait")
+                .description("Time spent waiting for the Redis account lock")
+                .tag("mode", mode.name())
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
-        log.debug("Try lock for accountNumber: {}", accountNumber);
+        lock(accountNumber, LockMode.STANDARD);
+    }
+
+    public void lock(String accountNumber, LockMode mode) {
+        if (!circuitBreaker.allowRequest()) {
+            useDatabaseLock(accountNumber);
+            return;
+        }
+
+        LockMode lockMode = resolveMode(accountNumber, mode);
+        if (!enterQueue(accountNumber)) {
+            circuitBreaker.releasePermission();
+            log.debug("Lock queue is full for accountNumber: {}", accountNumber);
+            throw new AccountException(ErrorCode.ACCOUNT_LOCK_QUEUE_FULL);
+        }
+
+        RLock lock = getLock(accountNumber, lockMode);
+        log.debug("Try {} lock for accountNumber: {}", lockMode, accountNumber);
+        long start = System.nanoTime();
+        boolean isLock;
         try {
-            boolean isLock = lock.tryLock( 1, 15, TimeUnit.SECONDS);
-            if(!isLock) {
-                log.error("======Lock acquisition failed=====");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
-            }
-        }catch (AccountException e) {
-            throw e;
+            isLock = lock.tryLock(lockProperties.getWaitMillis(), lockProperties.getLeaseMillis(),
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // Redis 의 상태를 알 수 없으므로 성공, 실패 어느 쪽도 기록하지 않고 시험 기회만 돌려준다.
+            circuitBreaker.releasePermission();
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            log.warn("Redis lock failed, falling back to database lock: {}", e.getMessage());
+            useDatabaseLock(accountNumber);
+            return;
+        } finally {
+            leaveQueue(accountNumber);
         }
-        catch (Exception e) {
-            log.error("Redis lock failed");
+        long waited = System.nanoTime() - start;
+        recordWait(lockMode, isLock, waited);
+        AccountLockContext.addLockWait(waited);
+
+        // Redis 가 응답했으므로 lock 경합 여부와 관계없이 성공으로 본다.
+        circuitBreaker.onSuccess();
+        if(!isLock) {
+            log.debug("======Lock acquisition failed=====");
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         }
     }
 
     public void unLock(String accountNumber) {
+        unLock(accountNumber, LockMode.STANDARD);
+    }
+
+    public void unLock(String accountNumber, LockMode mode) {
+        if (AccountLockContext.isDatabaseLock()) {
+            // 행 lock 은 트랜잭션이 끝날 때 이미 풀렸다.
+            AccountLockContext.clear();
+            return;
+        }
+
         log.debug("un lock for accountNumber: {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        try {
+            getLock(accountNumber, resolveMode(accountNumber, mode)).unlock();
+        } catch (IllegalMonitorStateException e) {
+            // lease time 이 지나 이미 풀린 lock 이다. Redis 장애가 아니다.
+            log.warn("Lock already released for accountNumber: {}", accountNumber);
+        } catch (Exception e) {
+            // lease time(15초)이 지나면 풀리므로 요청은 실패시키지 않는다.
+            circuitBreaker.onFailure();
+            log.warn("Redis unlock failed for accountNumber: {}", accountNumber);
+        }
+    }
+
+    public CircuitState getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private LockMode resolveMode(String accountNumber, LockMode mode) {
+        return lockProperties.getFairAccounts().contains(accountNumber) ? LockMode.FAIR : mode;
+    }
+
+    private RLock getLock(String accountNumber, LockMode mode) {
+        // 두 모드가 같은 key(hash)를 잡아야 endpoint 마다 모드가 달라도 상호 배제가 유지된다.
+        // 다만 한 계좌에 모드가 섞이면 일반 lock 이 fair 대기열을 앞지를 수 있으므로 hot 계좌는 fair-accounts 로 지정한다.
+        return mode == LockMode.FAIR
+                ? redissonClient.getFairLock(getLockKey(accountNumber))
+                : redissonClient.getLock(getLockKey(accountNumber));
+    }
+
+    private boolean enterQueue(String accountNumber) {
+        int maxWaiters = lockProperties.getMaxWaiters();
+        if (maxWaiters <= 0) {
+            return true;
+        }
+        boolean[] entered = {false};
+        waiters.compute(accountNumber, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxWaiters) {
+                return count;
+            }
+            entered[0] = true;
+            return current + 1;
+        });
+        return entered[0];
+    }
+
+    private void leaveQueue(String accountNumber) {
+        if (lockProperties.getMaxWaiters() <= 0) {
+            return;
+        }
+        waiters.computeIfPresent(accountNumber, (key, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private void recordWait(LockMode mode, boolean acquired, long nanos) {
+        (acquired ? acquiredWaitTimers : timeoutWaitTimers).get(mode).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void useDatabaseLock(String accountNumber) {
+        log.debug("Database lock for accountNumber: {}", accountNumber);
+        fallbackCounter.increment();
+        AccountLockContext.useDatabaseLock();
     }
 
     private String getLockKey(String accountNumber) {
@@ -0,0 +1,174 @@
+package com.example.account.service;
+
+import com.example.account.aop.ShardContext;
+import com.example.account.domain.OutboxEvent;
+import com.example.account.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * 발행되지 않은 outbox 이벤트를 id 순서대로 batch 로 읽어 sink 로 보낸다.
+ * sink 가 성공한 뒤에만 발행 완료로 표시하므로 표시 전에 죽으면 같은 이벤트가 다시 나간다(at-least-once).
+ * 실패한 batch 는 건너뛰지 않고 다음 주기에 처음부터 다시 보내므로 같은 계좌의 이벤트 순서가 유지된다.
+ * outbox 는 거래와 같은 shard 에 쌓이므로 shard 마다 따로 보낸다. 한 계좌의 이벤트는 한 shard 에만 있다.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private static final String RELAY_LOCK_KEY = "ACOB:RELAY";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final RedissonClient redissonClient;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final long retentionHours;
+
+    private final AtomicLongArray pending;
+    private final AtomicLongArray oldestPendingMillis;
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer deliveryLag;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            OutboxSink outboxSink,
+            RedissonClient redissonClient,
+            ShardRouter shardRouter,
+            MeterRegistry meterRegistry,
+            @Value("${account.outbox.batch-size:200}") int batchSize,
+            @Value("${account.outbox.retention-hours:24}") long retentionHours
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.redissonClient = redissonClient;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.retentionHours = retentionHours;
+        this.pending = new AtomicLongArray(shardRouter.getShardCount());
+        this.oldestPendingMillis = new AtomicLongArray(shardRouter.getShardCount());
+        this.publishedCounter = Counter.builder("account.outbox.published")
+                .description("Outbox events handed to the sink")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("account.outbox.publish.failures")
+                .description("Outbox batches the sink failed to accept")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("account.outbox.delivery.lag")
+                .description("Time from writing an outbox event to handing it to the sink")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        Gauge.builder("account.outbox.pending", pending, OutboxRelay::sum)
+                .description("Outbox events not yet published")
+                .register(meterRegistry);
+        Gauge.builder("account.outbox.lag", oldestPendingMillis, OutboxRelay::max)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${account.outbox.poll-interval-ms:200}")
+    public void relay() {
+        // 여러 인스턴스가 동시에 보내면 순서가 섞이므로 한 인스턴스만 보낸다.
+        RLock lock = redissonClient.getLock(RELAY_LOCK_KEY);
+        try {
+            if (!lock.tryLock()) {
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Skip outbox relay, relay lock unavailable: {}", e.getMessage());
+            return;
+        }
+        try {
+            shardRouter.forEachShard(shard -> {
+                int relayed;
+                do {
+                    relayed = relayBatch();
+                } while (relayed == batchSize);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 현재 ShardContext 의 shard 에서 한 batch 를 보낸다.
+    int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(
+                PageRequest.of(0, batchSize));
+        updateLag(ShardContext.currentOrDefault(), events);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            outboxSink.publish(events);
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.warn("Failed to publish {} outbox events from id {}: {}",
+                    events.size(), events.get(0).getId(), e.getMessage());
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.markPublished(
+                events.stream().map(OutboxEvent::getId).collect(Collectors.toList()), now);
+
+        publishedCounter.increment(events.size());
+        for (OutboxEvent event : events) {
+            deliveryLag.record(Duration.between(event.getOccurredAt(), now).toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return events.size();
+    }
+
+    @Scheduled(cron = "${account.outbox.cleanup-cron:0 30 * * * *}")
+    public void deletePublished() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        shardRouter.forEachShard(shard -> {
+            int deleted = outboxEventRepository.deletePublishedBefore(before);
+            log.debug("Deleted {} published outbox events on shard {}", deleted, shard);
+        });
+    }
+
+    private void updateLag(int shard, List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            pending.set(shard, 0);
+            oldestPendingMillis.set(shard, 0);
+            return;
+        }
+        pending.set(shard, events.size() < batchSize ? events.size() : outboxEventRepository.countByPublishedAtIsNull());
+        oldestPendingMillis.set(shard,
+                Duration.between(events.get(0).getOccurredAt(), LocalDateTime.now()).toMillis());
+    }
+
+    private static double sum(AtomicLongArray values) {
+        long sum = 0;
+        for (int i = 0; i < values.length(); i++) {
+            sum += values.get(i);
+        }
+        return sum;
+    }
+
+    private static double max(AtomicLongArray values) {
+        long max = 0;
+        for (int i = 0; i < values.length(); i++) {
+            max = Math.max(max, values.get(i));
+        }
+        return max;
+    }
+}
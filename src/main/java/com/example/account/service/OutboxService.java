@@ -0,0 +1,43 @@
+package com.example.account.service;
+
+import com.example.account.domain.OutboxEvent;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionEvent;
+import com.example.account.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    public static final String TRANSACTION_RECORDED = "TransactionRecorded";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // 거래를 저장하는 트랜잭션 안에서만 호출해야 거래와 이벤트가 함께 commit 되거나 함께 rollback 된다.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Transaction transaction) {
+        TransactionEvent event = TransactionEvent.fromEntity(transaction);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(TRANSACTION_RECORDED)
+                .aggregateKey(event.getAccountNumber())
+                .payload(toJson(event))
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private String toJson(TransactionEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize transaction event: " + event.getTransactionId(), e);
+        }
+    }
+}
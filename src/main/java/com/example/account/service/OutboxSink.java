@@ -0,0 +1,13 @@
+package com.example.account.service;
+
+import com.example.account.domain.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * outbox 이벤트를 외부로 내보내는 곳. 예외 없이 반환하면 목록 전체가 전달된 것으로 보고,
+ * 예외를 던지면 같은 목록을 다음 주기에 처음부터 다시 보낸다.
+ */
+public interface OutboxSink {
+    void publish(List<OutboxEvent> events) throws Exception;
+}
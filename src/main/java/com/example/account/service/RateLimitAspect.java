@@ -0,0 +1,34 @@
+package com.example.account.service;
+
+import com.example.account.aop.RateLimit;
+import com.example.account.aop.RateLimitKeyInterface;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * LockAopAspect 보다 먼저 실행되어, 제한에 걸린 요청은 lock 획득과 실패 거래 저장 없이 바로 거절한다.
+ * 인자를 바인딩하는 advice 는 ExposeInvocationInterceptor(HIGHEST_PRECEDENCE) 뒤에 있어야 하므로 그 다음 순서를 쓴다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class RateLimitAspect {
+
+    private final RateLimitService rateLimitService;
+
+    @Around("@annotation(rateLimit) && args(request)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            RateLimit rateLimit,
+            RateLimitKeyInterface request
+    ) throws Throwable {
+        rateLimitService.check(rateLimit.value(), request.getUserId(), request.getAccountNumber());
+        return pjp.proceed();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.account.service;
+
+import com.example.account.config.RateLimitProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateLimiterConfig;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * 계좌 / 사용자 단위 token bucket 제한.
+ *
+ * 로컬 bucket 으로 먼저 거르고, 전역 제한이 켜져 있으면 Redisson RRateLimiter 로 인스턴스 전체의 사용량을 확인한다.
+ * Redis 오류로 요청을 막지는 않는다(fail-open). lock 과 DB 보다 앞에서 호출되므로 거절 비용이 작다.
+ */
+@Slf4j
+@Service
+public class RateLimitService {
+    private static final String REDIS_KEY_PREFIX = "ACRL:";
+    // 전역 bucket 도 한동안 요청이 없으면 가득 찬 상태와 같으므로 Redis 에서 지운다.
+    private static final Duration MIN_REDIS_TTL = Duration.ofMinutes(10);
+
+    private final RateLimitProperties properties;
+    private final ObjectProvider<RedissonClient> redissonClient;
+    private final LongSupplier nanoClock;
+    // 한동안 요청이 없던 bucket 은 가득 찬 상태와 같으므로 버려도 된다.
+    private final Cache<String, TokenBucket> localBuckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+    // 이 인스턴스가 Redis 에 설정한 rate. Redis 의 key 보다 먼저 버려지도록 TTL 보다 짧게 둔다.
+    private final Cache<String, String> configuredRedisLimiters = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .maximumSize(100_000)
+            .build();
+
+    @Autowired
+    public RateLimitService(RateLimitProperties properties, ObjectProvider<RedissonClient> redissonClient) {
+        this(properties, redissonClient, System::nanoTime);
+    }
+
+    RateLimitService(RateLimitProperties properties, ObjectProvider<RedissonClient> redissonClient,
+                     LongSupplier nanoClock) {
+        this.properties = properties;
+        this.redissonClient = redissonClient;
+        this.nanoClock = nanoClock;
+    }
+
+    public void check(String endpoint, Long userId, String accountNumber) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RateLimitProperties.Endpoint limits = properties.getEndpoints().get(endpoint);
+        if (limits == null) {
+            return;
+        }
+
+        if (!tryAcquire(endpoint + ":account:" + accountNumber, limits.getAccount())
+                || (userId != null && !tryAcquire(endpoint + ":user:" + userId, limits.getUser()))) {
+            throw new AccountException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+    }
+
+    private boolean tryAcquire(String key, RateLimitProperties.Bucket bucket) {
+        if (!bucket.isLimited()) {
+            return true;
+        }
+
+        // 설정이 바뀌면 key 가 달라져 새 bucket 을 만든다.
+        TokenBucket local = localBuckets.get(key + "@" + rateOf(bucket),
+                k -> new TokenBucket(bucket.getCapacity(), bucket.getRefillPerSecond(), nanoClock));
+        if (!local.tryAcquire()) {
+            return false;
+        }
+
+        return !properties.isRedisEnabled() || tryAcquireGlobal(key, bucket);
+    }
+
+    /**
+     * RRateLimiter 는 interval 마다 rate 만큼 허용하는 window 라서 capacity 를 rate 로 두고,
+     * capacity 를 다 채우는 시간(capacity / refillPerSecond)을 interval 로 둔다.
+     */
+    private boolean tryAcquireGlobal(String key, RateLimitProperties.Bucket bucket) {
+        String rate = rateOf(bucket);
+        long intervalMillis = intervalMillisOf(bucket);
+        try {
+            RRateLimiter limiter = redissonClient.getObject().getRateLimiter(REDIS_KEY_PREFIX + key);
+            if (!rate.equals(configuredRedisLimiters.getIfPresent(key))) {
+                configure(limiter, bucket.getCapacity(), intervalMillis);
+                configuredRedisLimiters.put(key, rate);
+            }
+            boolean acquired = limiter.tryAcquire();
+            limiter.expireAsync(Duration.ofMillis(Math.max(intervalMillis, MIN_REDIS_TTL.toMillis())));
+            return acquired;
+        } catch (Exception e) {
+            // key 가 만료돼 설정이 사라졌을 수 있으니 다음 요청에서 다시 설정한다.
+            configuredRedisLimiters.invalidate(key);
+            log.debug("Redis rate limiter failed, allowing request: {}", key);
+            return true;
+        }
+    }
+
+    // 다른 인스턴스가 이전 설정으로 만들어 둔 limiter 면 새 설정으로 덮어쓴다.
+    private void configure(RRateLimiter limiter, long capacity, long intervalMillis) {
+        if (limiter.trySetRate(RateType.OVERALL, capacity, intervalMillis, RateIntervalUnit.MILLISECONDS)) {
+            return;
+        }
+        RateLimiterConfig current = limiter.getConfig();
+        if (current.getRate() != capacity || current.getRateInterval() != intervalMillis) {
+            limiter.setRate(RateType.OVERALL, capacity, intervalMillis, RateIntervalUnit.MILLISECONDS);
+        }
+    }
+
+    private static long intervalMillisOf(RateLimitProperties.Bucket bucket) {
+        return Math.max(1L, bucket.getCapacity() * 1000L / bucket.getRefillPerSecond());
+    }
+
+    private static String rateOf(RateLimitProperties.Bucket bucket) {
+        return bucket.getCapacity() + "/" + bucket.getRefillPerSecond();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.exception.AccountException;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+
+/**
+ * Redis 잔액 엔진이 켜져 있으면 계좌 hash(ACBL:) 를 모든 잔액 변경의 기준으로 쓴다.
+ * hash 의 잔액은 DB 잔액에 아직 반영되지 않은 Redis 거래를 더한 값이라, DB 경로도 DB 잔액이 아니라 hash 로 확인해야
+ * 두 경로가 같은 돈을 쓰지 않는다.
+ * <p>
+ * DB 경로는 변경 전에 hash 가 없으면 읽어 둔 계좌로 채운다. 그 뒤로는 hash 가 지워지지 않으므로 다시 읽혀서
+ * 변경이 두 번 더해지거나 빠지지 않는다.
+ * 가용 잔액을 줄이는 변경은 commit 전에 hash 에서 확인과 차감을 한 번에 하고 rollback 되면 되돌린다.
+ * 늘리는 변경은 rollback 될 돈을 먼저 쓰지 않도록 commit 뒤에 더한다.
+ */
+@Slf4j
+@Component
+public class RedisBalanceCache {
+    private static final String ACCOUNT_KEY_PREFIX = "ACBL:";
+
+    // KEYS: 계좌 / ARGV: userId, status, balance, held
+    private static final String LOAD_IF_ABSENT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then "
+                    + "redis.call('HMSET', KEYS[1], 'userId', ARGV[1], 'status', ARGV[2], "
+                    + "'balance', ARGV[3], 'held', ARGV[4]) "
+                    + "end ";
+
+    private static final String LOAD_SCRIPT = LOAD_IF_ABSENT + "return 1";
+
+    // KEYS: 계좌 / ARGV: userId, status, balance, held, 잔액 변경, 보류 금액 변경
+    private static final String RESERVE_SCRIPT = LOAD_IF_ABSENT
+            + "local account = redis.call('HMGET', KEYS[1], 'balance', 'held') "
+            + "local balance = tonumber(account[1]) + tonumber(ARGV[5]) "
+            + "local held = tonumber(account[2] or '0') + tonumber(ARGV[6]) "
+            + "if balance - held < 0 then return 0 end "
+            + "redis.call('HINCRBY', KEYS[1], 'balance', ARGV[5]) "
+            + "redis.call('HINCRBY', KEYS[1], 'held', ARGV[6]) "
+            + "return 1";
+
+    private static final String APPLY_CHANGE_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "redis.call('HINCRBY', KEYS[1], 'balance', ARGV[1]) "
+                    + "redis.call('HINCRBY', KEYS[1], 'held', ARGV[2]) "
+                    + "return 1";
+
+    private static final String UPDATE_STATUS_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "redis.call('HSET', KEYS[1], 'status', ARGV[1]) "
+                    + "return 1";
+
+    private final ObjectProvider<RedissonClient> redissonClient;
+    private final boolean enabled;
+
+    public RedisBalanceCache(
+            ObjectProvider<RedissonClient> redissonClient,
+            @Value("${account.balance-engine.redis.enabled:false}") boolean enabled
+    ) {
+        this.redissonClient = redissonClient;
+        this.enabled = enabled;
+    }
+
+    static String getAccountKey(String accountNumber) {
+        return ACCOUNT_KEY_PREFIX + accountNumber;
+    }
+
+    /**
+     * hash 가 없을 때만 계좌의 현재 값으로 채운다.
+     */
+    public void load(Account account) {
+        eval(LOAD_SCRIPT, account.getAccountNumber(), loadArgs(account));
+    }
+
+    /**
+     * DB 경로의 잔액, 보류 금액 변경을 hash 에 반영한다. account 는 이번 변경을 적용하기 전에 읽은 값이어야 한다.
+     * 가용 잔액이 모자라면 AMOUNT_EXCEED_BALANCE 로 거절하고, Redis 를 쓸 수 없으면 변경도 하지 않도록 예외를 그대로 던진다.
+     */
+    public void applyChange(Account account, long balanceDelta, long heldDelta) {
+        if (!enabled || (balanceDelta == 0 && heldDelta == 0)) {
+            return;
+        }
+        String accountNumber = account.getAccountNumber();
+
+        if (balanceDelta - heldDelta < 0) {
+            Object[] args = loadArgs(account, String.valueOf(balanceDelta), String.valueOf(heldDelta));
+            if (eval(RESERVE_SCRIPT, accountNumber, args) == 0L) {
+                throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            }
+            afterRollback(() -> applyQuietly(accountNumber, -balanceDelta, -heldDelta));
+            return;
+        }
+
+        load(account);
+        afterCommit(() -> applyQuietly(accountNumber, balanceDelta, heldDelta));
+    }
+
+    public void updateStatus(String accountNumber, AccountStatus status) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            try {
+                eval(UPDATE_STATUS_SCRIPT, accountNumber, status.name());
+            } catch (RuntimeException e) {
+                log.error("Failed to apply account status to redis balance: {}", accountNumber, e);
+            }
+        });
+    }
+
+    private void applyQuietly(String accountNumber, long balanceDelta, long heldDelta) {
+        try {
+            eval(APPLY_CHANGE_SCRIPT, accountNumber, String.valueOf(balanceDelta), String.valueOf(heldDelta));
+        } catch (RuntimeException e) {
+            log.error("Failed to apply account change to redis balance: {}", accountNumber, e);
+        }
+    }
+
+    private static Object[] loadArgs(Account account, Object... extra) {
+        Object[] args = new Object[4 + extra.length];
+        args[0] = account.getAccountUser().getId().toString();
+        args[1] = account.getAccountStatus().name();
+        args[2] = account.getBalance().toString();
+        args[3] = account.getHeldBalance().toString();
+        System.arraycopy(extra, 0, args, 4, extra.length);
+        return args;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private long eval(String script, String accountNumber, Object... args) {
+        Long result = redissonClient.getObject().getScript(StringCodec.INSTANCE)
+                .eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.INTEGER,
+                        Collections.singletonList(getAccountKey(accountNumber)), args);
+        return result == null ? 0L : result;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.RedisTransactionRecord;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RList;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Redis 변경 큐에 쌓인 거래 기록을 batch 단위로 DB 에 반영한다.
+ * 큐에서 읽은 기록은 DB commit 이 끝난 뒤에 큐에서 제거하고(at-least-once),
+ * 이미 저장된 transactionId 는 건너뛰어 재처리 시에도 중복 저장되지 않는다.
+ * 잔액은 snapshot 으로 덮어쓰지 않고 성공한 거래의 금액만 상대값으로 더하므로 DB 경로의 거래, 승인과 섞여도 유실되지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.balance-engine.redis.enabled", havingValue = "true")
+public class RedisBalancePersister {
+    private static final String DRAIN_LOCK_KEY = "ACTX:PERSISTER";
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final DailySummaryService dailySummaryService;
+    private final OutboxService outboxService;
+    private final BloomFilterService bloomFilterService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${account.balance-engine.redis.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${account.balance-engine.redis.flush-interval-ms:200}")
+    public void drain() {
+        // 여러 인스턴스가 같은 큐를 동시에 비우지 않도록 한다.
+        RLock lock = redissonClient.getLock(DRAIN_LOCK_KEY);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            int drained;
+            do {
+                drained = drainBatch();
+            } while (drained == batchSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int drainBatch() {
+        RList<String> queue = redissonClient.getList(RedisBalanceService.QUEUE_KEY, StringCodec.INSTANCE);
+        List<String> payloads = queue.range(0, batchSize - 1);
+        if (payloads.isEmpty()) {
+            return 0;
+        }
+
+        List<RedisTransactionRecord> records = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            records.add(parse(payload));
+        }
+
+        // 계좌가 있는 shard 별로 나눠 각 shard 의 트랜잭션으로 반영한다.
+        // 일부 shard 만 반영된 채 실패해도 큐를 지우지 않으므로 다음 drain 에서 나머지가 반영된다.
+        Map<Integer, List<RedisTransactionRecord>> recordsByShard = records.stream()
+                .collect(Collectors.groupingBy(record -> shardRouter.shardOf(record.getAccountNumber()),
+                        TreeMap::new, Collectors.toList()));
+        recordsByShard.forEach((shard, shardRecords) -> shardRouter.onShard(shard, () -> {
+            transactionTemplate.executeWithoutResult(status -> persist(shardRecords));
+            return null;
+        }));
+        queue.trim(payloads.size(), -1);
+
+        log.debug("Persisted {} redis transaction records", payloads.size());
+        return payloads.size();
+    }
+
+    private void persist(List<RedisTransactionRecord> records) {
+        Set<String> persisted = transactionRepository.findByTransactionIdIn(
+                        records.stream()
+                                .map(RedisTransactionRecord::getTransactionId)
+                                .collect(Collectors.toList()))
+                .stream()
+                .map(Transaction::getTransactionId)
+                .collect(Collectors.toSet());
+
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                        records.stream()
+                                .map(RedisTransactionRecord::getAccountNumber)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(records.size());
+        Map<Long, Long> balanceDeltas = new HashMap<>();
+        for (RedisTransactionRecord record : records) {
+            if (persisted.contains(record.getTransactionId())) {
+                continue;
+            }
+
+            Account account = accounts.get(record.getAccountNumber());
+            if (account == null) {
+                log.error("Account not found for redis transaction: {}", record.getTransactionId());
+                continue;
+            }
+
+            balanceDeltas.merge(account.getId(), balanceDeltaOf(record), Long::sum);
+            Transaction transaction = Transaction.builder()
+                    .transactionType(record.getTransactionType())
+                    .transactionResultType(record.getTransactionResultType())
+                    .account(account)
+                    .amount(record.getAmount())
+                    .balanceSnapshot(record.getBalanceSnapshot())
+                    .transactionId(record.getTransactionId())
+                    .transactedAt(record.getTransactedAt())
+                    .partitionKey(TransactionIdGenerator.partitionKeyOf(record.getTransactedAt()))
+                    .build();
+            transactions.add(transaction);
+            dailySummaryService.record(transaction);
+        }
+
+        balanceDeltas.forEach((accountId, delta) -> {
+            if (delta != 0) {
+                accountRepository.addBalance(accountId, delta);
+            }
+        });
+        transactionRepository.saveAll(transactions);
+        for (Transaction transaction : transactions) {
+            outboxService.append(transaction);
+            bloomFilterService.addTransaction(transaction.getTransactionId());
+        }
+    }
+
+    private static long balanceDeltaOf(RedisTransactionRecord record) {
+        if (record.getTransactionResultType() != TransactionResultType.S) {
+            return 0L;
+        }
+        return record.getTransactionType() == TransactionType.CANCEL ? record.getAmount() : -record.getAmount();
+    }
+
+    private RedisTransactionRecord parse(String payload) {
+        try {
+            return objectMapper.readValue(payload, RedisTransactionRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid redis transaction record: " + payload, e);
+        }
+    }
+}
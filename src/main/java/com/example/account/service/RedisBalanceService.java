@@ -0,0 +1,211 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 계좌 잔액을 Redis hash 에 두고 Lua 스크립트 한 번으로 검증, 잔액 변경, 거래 기록 적재를 처리한다.
+ * 스크립트가 원자적으로 실행되므로 별도의 계좌 lock 을 잡지 않는다.
+ * 승인으로 잡힌 금액은 hash 의 held 로 빼고 확인하며, DB 경로의 변경도 {@link RedisBalanceCache} 가 같은 hash 에서 확인하고 반영한다.
+ * 원거래 hash(ACTX:) 는 취소할 수 있는 동안만 필요하므로 취소 가능 기간보다 조금 길게 두고 지운다.
+ * DB 반영은 {@link RedisBalancePersister} 가 변경 큐를 모아서 처리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.balance-engine.redis.enabled", havingValue = "true")
+public class RedisBalanceService {
+    public static final String QUEUE_KEY = "ACTX:QUEUE";
+
+    private static final String NO_ACCOUNT = "NO_ACCOUNT";
+    private static final String NO_TRANSACTION = "NO_TRANSACTION";
+
+    // 취소는 1년 안의 거래만 되므로 그보다 길게 둔다.
+    private static final Duration TRANSACTION_TTL = Duration.ofDays(367);
+
+    // KEYS: 원거래 / ARGV: TTL(ms), accountNumber, amount, transactedAt(epoch)
+    private static final String LOAD_TRANSACTION_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then "
+                    + "redis.call('HMSET', KEYS[1], 'accountNumber', ARGV[2], 'amount', ARGV[3], 'transactedAt', ARGV[4]) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[1]) "
+                    + "end "
+                    + "return 1";
+
+    // KEYS: 계좌, 변경 큐, 신규 거래 / ARGV: userId, amount, transactionId, transactedAt, transactedAt(epoch), accountNumber, TTL(ms)
+    private static final String USE_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {'" + NO_ACCOUNT + "', '', ''} end "
+                    + "local account = redis.call('HMGET', KEYS[1], 'userId', 'status', 'balance', 'held') "
+                    + "local amount = tonumber(ARGV[2]) "
+                    + "local balance = tonumber(account[3]) "
+                    + "local held = tonumber(account[4] or '0') "
+                    + "local code = '' "
+                    + "if account[1] ~= ARGV[1] then code = 'USER_ACCOUNT_UN_MATCH' "
+                    + "elseif account[2] == 'UNREGISTERED' then code = 'ACCOUNT_ALREADY_UNREGISTERED' "
+                    + "elseif balance - held < amount then code = 'AMOUNT_EXCEED_BALANCE' end "
+                    + "local result = 'F' "
+                    + "if code == '' then "
+                    + "result = 'S' "
+                    + "balance = redis.call('HINCRBY', KEYS[1], 'balance', -amount) "
+                    + "redis.call('HMSET', KEYS[3], 'accountNumber', ARGV[6], 'amount', ARGV[2], 'transactedAt', ARGV[5]) "
+                    + "redis.call('PEXPIRE', KEYS[3], ARGV[7]) "
+                    + "end "
+                    + "redis.call('RPUSH', KEYS[2], cjson.encode({accountNumber = ARGV[6], transactionType = 'USE', "
+                    + "transactionResultType = result, amount = amount, balanceSnapshot = balance, "
+                    + "transactionId = ARGV[3], transactedAt = ARGV[4]})) "
+                    + "return {result, tostring(balance), code}";
+
+    // KEYS: 계좌, 변경 큐, 원거래 / ARGV: accountNumber, amount, transactionId, transactedAt, 취소 가능 기준 시각(epoch)
+    private static final String CANCEL_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {'" + NO_ACCOUNT + "', '', ''} end "
+                    + "if redis.call('EXISTS', KEYS[3]) == 0 then return {'" + NO_TRANSACTION + "', '', ''} end "
+                    + "local original = redis.call('HMGET', KEYS[3], 'accountNumber', 'amount', 'transactedAt') "
+                    + "local amount = tonumber(ARGV[2]) "
+                    + "local balance = tonumber(redis.call('HGET', KEYS[1], 'balance')) "
+                    + "local code = '' "
+                    + "if original[1] ~= ARGV[1] then code = 'TRANSACTION_ACCOUNT_UN_MATCH' "
+                    + "elseif tonumber(original[2]) ~= amount then code = 'CANCEL_MUST_FULLY' "
+                    + "elseif tonumber(original[3]) < tonumber(ARGV[5]) then code = 'TOO_OLD_ORDER_TO_CANCEL' end "
+                    + "local result = 'F' "
+                    + "if code == '' then "
+                    + "result = 'S' "
+                    + "balance = redis.call('HINCRBY', KEYS[1], 'balance', amount) "
+                    + "end "
+                    + "redis.call('RPUSH', KEYS[2], cjson.encode({accountNumber = ARGV[1], transactionType = 'CANCEL', "
+                    + "transactionResultType = result, amount = amount, balanceSnapshot = balance, "
+                    + "transactionId = ARGV[3], transactedAt = ARGV[4]})) "
+                    + "return {result, tostring(balance), code}";
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ShardRouter shardRouter;
+    private final RedisBalanceCache redisBalanceCache;
+    private final AccountMetrics accountMetrics;
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        LocalDateTime transactedAt = LocalDateTime.now();
+        String transactionId = TransactionIdGenerator.generate(transactedAt, shardRouter.shardOf(accountNumber));
+        List<Object> keys = Arrays.asList(
+                RedisBalanceCache.getAccountKey(accountNumber), QUEUE_KEY, getTransactionKey(transactionId));
+        Object[] args = {
+                userId.toString(), amount.toString(), transactionId,
+                transactedAt.toString(), toEpochMilli(transactedAt), accountNumber,
+                String.valueOf(TRANSACTION_TTL.toMillis())
+        };
+
+        List<Object> result = eval(USE_SCRIPT, keys, args);
+        if (NO_ACCOUNT.equals(result.get(0))) {
+            loadAccount(accountNumber);
+            result = eval(USE_SCRIPT, keys, args);
+        }
+
+        return toTransactionDto(result, TransactionType.USE, accountNumber, amount, transactionId, transactedAt);
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        LocalDateTime transactedAt = LocalDateTime.now();
+        String cancelTransactionId = TransactionIdGenerator.generate(transactedAt, shardRouter.shardOf(accountNumber));
+        List<Object> keys = Arrays.asList(
+                RedisBalanceCache.getAccountKey(accountNumber), QUEUE_KEY, getTransactionKey(transactionId));
+        Object[] args = {
+                accountNumber, amount.toString(), cancelTransactionId,
+                transactedAt.toString(), toEpochMilli(transactedAt.minusYears(1L))
+        };
+
+        List<Object> result = eval(CANCEL_SCRIPT, keys, args);
+        if (NO_ACCOUNT.equals(result.get(0))) {
+            loadAccount(accountNumber);
+            result = eval(CANCEL_SCRIPT, keys, args);
+        }
+        if (NO_TRANSACTION.equals(result.get(0))) {
+            loadTransaction(transactionId);
+            result = eval(CANCEL_SCRIPT, keys, args);
+        }
+
+        return toTransactionDto(result, TransactionType.CANCEL, accountNumber, amount, cancelTransactionId, transactedAt);
+    }
+
+    private TransactionDto toTransactionDto(List<Object> result, TransactionType transactionType,
+                                            String accountNumber, Long amount,
+                                            String transactionId, LocalDateTime transactedAt) {
+        String resultType = String.valueOf(result.get(0));
+        if (NO_ACCOUNT.equals(resultType)) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        if (NO_TRANSACTION.equals(resultType)) {
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+        accountMetrics.countTransaction(transactionType, TransactionResultType.valueOf(resultType));
+        if (TransactionResultType.F.name().equals(resultType)) {
+            throw new AccountException(ErrorCode.valueOf(String.valueOf(result.get(2))));
+        }
+
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transactionType)
+                .transactionResultType(TransactionResultType.S)
+                .amount(amount)
+                .balanceSnapshot(Long.parseLong(String.valueOf(result.get(1))))
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    private void loadAccount(String accountNumber) {
+        Account account = shardRouter.onShard(shardRouter.shardOf(accountNumber),
+                        () -> accountRepository.findByAccountNumber(accountNumber))
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        log.debug("Load account into redis: {}", accountNumber);
+        redisBalanceCache.load(account);
+    }
+
+    private void loadTransaction(String transactionId) {
+        Transaction transaction = shardRouter.onShard(shardRouter.shardOfTransaction(transactionId),
+                        () -> transactionRepository.findByTransactionId(transactionId))
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+
+        redissonClient.getScript(StringCodec.INSTANCE)
+                .eval(RScript.Mode.READ_WRITE, LOAD_TRANSACTION_SCRIPT, RScript.ReturnType.INTEGER,
+                        Collections.singletonList(getTransactionKey(transactionId)),
+                        String.valueOf(TRANSACTION_TTL.toMillis()),
+                        transaction.getAccount().getAccountNumber(),
+                        transaction.getAmount().toString(),
+                        toEpochMilli(transaction.getTransactedAt()));
+    }
+
+    private List<Object> eval(String script, List<Object> keys, Object... args) {
+        return redissonClient.getScript(StringCodec.INSTANCE)
+                .eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.MULTI, keys, args);
+    }
+
+    private String toEpochMilli(LocalDateTime dateTime) {
+        return String.valueOf(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private String getTransactionKey(String transactionId) {
+        return "ACTX:" + transactionId;
+    }
+}
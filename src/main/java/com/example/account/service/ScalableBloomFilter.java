@@ -0,0 +1,160 @@
+package com.example.account.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 원소 수를 미리 알 수 없을 때 쓰는 Bloom filter.
+ * 마지막 층이 설계 용량에 차면 용량을 두 배로, 오탐률을 절반으로 줄인 층을 덧붙이므로
+ * 전체 오탐률은 처음 정한 값을 넘지 않는다(Almeida et al., Scalable Bloom Filters).
+ * 넣은 값은 항상 있다고 답한다. 없다고 답하면 확실히 없는 값이다.
+ */
+final class ScalableBloomFilter {
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final double falsePositiveProbability;
+    private volatile List<Layer> layers;
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.layers = Collections.singletonList(
+                new Layer(initialCapacity, falsePositiveProbability * (1 - TIGHTENING_RATIO)));
+    }
+
+    void add(String value) {
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+
+        List<Layer> current = layers;
+        for (Layer layer : current) {
+            if (layer.mightContain(h1, h2)) {
+                return;
+            }
+        }
+        Layer last = current.get(current.size() - 1);
+        if (last.isFull()) {
+            last = grow(last);
+        }
+        last.put(h1, h2);
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+        for (Layer layer : layers) {
+            if (layer.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int layerCount() {
+        return layers.size();
+    }
+
+    long approximateSize() {
+        long size = 0;
+        for (Layer layer : layers) {
+            size += layer.count.get();
+        }
+        return size;
+    }
+
+    private synchronized Layer grow(Layer full) {
+        List<Layer> current = layers;
+        Layer last = current.get(current.size() - 1);
+        if (last != full) {
+            // 다른 스레드가 이미 층을 늘렸다.
+            return last;
+        }
+        double probability = falsePositiveProbability * (1 - TIGHTENING_RATIO)
+                * Math.pow(TIGHTENING_RATIO, current.size());
+        Layer next = new Layer(full.capacity * GROWTH_FACTOR, probability);
+        List<Layer> grown = new ArrayList<>(current);
+        grown.add(next);
+        layers = Collections.unmodifiableList(grown);
+        return next;
+    }
+
+    private static long hash(String value, long seed) {
+        long h = seed ^ (value.length() * 0xFF51AFD7ED558CCDL);
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        // murmur3 fmix64
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Layer {
+        private final long capacity;
+        private final long bitSize;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        private Layer(long capacity, double falsePositiveProbability) {
+            double ln2 = Math.log(2);
+            this.capacity = capacity;
+            this.bitSize = Math.max(64L,
+                    (long) Math.ceil(-capacity * Math.log(falsePositiveProbability) / (ln2 * ln2)));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * ln2));
+            this.bits = new AtomicLongArray(Math.toIntExact((bitSize + 63) >>> 6));
+        }
+
+        private boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        // Kirsch-Mitzenmacher: 두 hash 의 선형 결합으로 k 개의 위치를 만든다.
+        private void put(long h1, long h2) {
+            boolean changed = false;
+            long combined = h1;
+            for (int i = 0; i < hashCount; i++) {
+                changed |= set((combined & Long.MAX_VALUE) % bitSize);
+                combined += h2;
+            }
+            if (changed) {
+                count.incrementAndGet();
+            }
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashCount; i++) {
+                if (!get((combined & Long.MAX_VALUE) % bitSize)) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private boolean set(long index) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long old;
+            do {
+                old = bits.get(word);
+                if ((old & mask) != 0) {
+                    return false;
+                }
+            } while (!bits.compareAndSet(word, old, old | mask));
+            return true;
+        }
+
+        private boolean get(long index) {
+            return (bits.get((int) (index >>> 6)) & (1L << index)) != 0;
+        }
+    }
+}
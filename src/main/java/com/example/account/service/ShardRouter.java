@@ -0,0 +1,155 @@
+package com.example.account.service;
+
+import com.example.account.aop.ShardContext;
+import com.example.account.config.ShardingProperties;
+import com.example.account.metrics.SqlStatementCounter;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * 계좌번호와 거래 ID 를 shard 로 대응시키고, 특정 shard 나 모든 shard 에서 작업을 실행한다.
+ * sharding 을 쓰지 않으면 shard 는 0 하나뿐이고 모든 작업은 호출한 스레드에서 그대로 실행된다.
+ */
+@Component
+public class ShardRouter {
+    private static final long FIRST_ACCOUNT_NUMBER = 1000000000L;
+
+    private final int shardCount;
+    private final int buckets;
+    private final int[] bucketShards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.shardCount = properties.isEnabled() ? Math.max(1, properties.getShards().size()) : 1;
+        this.buckets = properties.getBuckets();
+        this.bucketShards = new int[buckets];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            bucketShards[bucket] = properties.getMovedBuckets().getOrDefault(bucket, bucket % shardCount);
+        }
+        this.fanOutExecutor = shardCount > 1
+                ? Executors.newFixedThreadPool(shardCount * 2, runnable -> {
+                    Thread thread = new Thread(runnable, "shard-fan-out");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(String accountNumber) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        return bucketShards[bucketOf(accountNumber)];
+    }
+
+    /**
+     * @return 거래 ID 에 담긴 shard. shard 정보가 없는 이전 형식의 ID 는 기본 shard 에 있다.
+     */
+    public int shardOfTransaction(String transactionId) {
+        Integer shard = TransactionIdGenerator.shardOf(transactionId);
+        return shard == null || shard >= shardCount ? 0 : shard;
+    }
+
+    // 계좌를 shard 에 고르게 나눠 잔액 UPDATE 부하를 분산한다.
+    public int nextShardForNewAccount() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+
+    /**
+     * @param lastAccountNumber 해당 shard 에서 마지막으로 만든 계좌번호, 없으면 null
+     * @return lastAccountNumber 다음으로 해당 shard 에 대응되는 계좌번호
+     */
+    public long nextAccountNumber(int shard, Long lastAccountNumber) {
+        long candidate = lastAccountNumber == null ? FIRST_ACCOUNT_NUMBER : lastAccountNumber + 1;
+        while (shardOf(String.valueOf(candidate)) != shard) {
+            candidate++;
+        }
+        return candidate;
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.get();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            onShard(target, () -> {
+                work.accept(target);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 모든 shard 에 같은 조회를 병렬로 보내고 shard 순서대로 결과를 돌려준다.
+     * 다른 스레드에서 실행되므로 호출한 쪽의 트랜잭션에는 참여하지 않는다.
+     */
+    public <T> List<T> fanOut(IntFunction<T> work) {
+        if (shardCount == 1) {
+            List<T> single = new ArrayList<>(1);
+            single.add(onShard(0, () -> work.apply(0)));
+            return single;
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            // 요청의 SQL 수에 fan-out 스레드에서 실행한 조회도 포함되도록 counter 를 넘긴다.
+            futures.add(CompletableFuture.supplyAsync(
+                    SqlStatementCounter.propagate(() -> onShard(target, () -> work.apply(target))), fanOutExecutor));
+        }
+
+        List<T> results = new ArrayList<>(shardCount);
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private int bucketOf(String accountNumber) {
+        long value;
+        try {
+            value = Long.parseLong(accountNumber);
+        } catch (NumberFormatException e) {
+            value = accountNumber.hashCode();
+        }
+        return (int) Math.floorMod(value, (long) buckets);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.account.service;
+
+import com.example.account.aop.ShardContext;
+import com.example.account.aop.ShardKey;
+import com.example.account.type.ShardKeyType;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code @ShardRouted} 메소드의 shard 를 정해 ShardContext 에 지정한다.
+ * {@code @Transactional} 보다 먼저 실행되어야 하므로 순서를 명시한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+    private static final int NO_KEY = -1;
+
+    private final ShardRouter shardRouter;
+    private final Map<Method, Integer> keyIndexes = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.example.account.aop.ShardRouted)")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        int keyIndex = keyIndexes.computeIfAbsent(method, this::findKeyIndex);
+
+        int shard;
+        if (keyIndex == NO_KEY) {
+            shard = shardRouter.nextShardForNewAccount();
+        } else {
+            String key = (String) pjp.getArgs()[keyIndex];
+            ShardKeyType type = findShardKey(method.getParameterAnnotations()[keyIndex]).value();
+            shard = type == ShardKeyType.TRANSACTION_ID
+                    ? shardRouter.shardOfTransaction(key)
+                    : shardRouter.shardOf(key);
+        }
+
+        Integer previous = ShardContext.get();
+        ShardContext.set(shard);
+        try {
+            return pjp.proceed();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private int findKeyIndex(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            if (findShardKey(parameterAnnotations[i]) != null) {
+                return i;
+            }
+        }
+        return NO_KEY;
+    }
+
+    private ShardKey findShardKey(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof ShardKey) {
+                return (ShardKey) annotation;
+            }
+        }
+        return null;
+    }
+}
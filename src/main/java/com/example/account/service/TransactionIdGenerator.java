@@ -0,0 +1,74 @@
+package com.example.account.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 거래 ID 는 거래 월(yyyyMM) 6자리 + shard 2자리 + UUID 32자리로 만든다.
+ * ID 만 보고 거래가 저장된 shard 와 월 파티션을 알 수 있다.
+ * shard 자리가 없는 이전 형식(38자리)도 월 정보는 읽는다.
+ */
+public final class TransactionIdGenerator {
+    private static final int PARTITION_PREFIX_LENGTH = 6;
+    private static final int SHARD_LENGTH = 2;
+    private static final int UUID_LENGTH = 32;
+    private static final int ID_LENGTH = PARTITION_PREFIX_LENGTH + SHARD_LENGTH + UUID_LENGTH;
+    private static final int UNSHARDED_ID_LENGTH = PARTITION_PREFIX_LENGTH + UUID_LENGTH;
+
+    private TransactionIdGenerator() {
+    }
+
+    public static String generate() {
+        return generate(LocalDateTime.now());
+    }
+
+    public static String generate(LocalDateTime transactedAt) {
+        return generate(transactedAt, 0);
+    }
+
+    public static String generate(LocalDateTime transactedAt, int shard) {
+        if (shard < 0 || shard > 99) {
+            throw new IllegalArgumentException("shard must be between 0 and 99: " + shard);
+        }
+        return partitionKeyOf(transactedAt)
+                + (shard < 10 ? "0" : "") + shard
+                + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public static int partitionKeyOf(LocalDateTime transactedAt) {
+        return transactedAt.getYear() * 100 + transactedAt.getMonthValue();
+    }
+
+    /**
+     * @return ID 에 담긴 파티션(yyyyMM), 월 정보가 없는 형식이면 null
+     */
+    public static Integer partitionKeyOf(String transactionId) {
+        if (transactionId == null
+                || (transactionId.length() != ID_LENGTH && transactionId.length() != UNSHARDED_ID_LENGTH)
+                || !isDigits(transactionId, 0, PARTITION_PREFIX_LENGTH)) {
+            return null;
+        }
+        return Integer.parseInt(transactionId.substring(0, PARTITION_PREFIX_LENGTH));
+    }
+
+    /**
+     * @return ID 에 담긴 shard, shard 정보가 없는 형식이면 null
+     */
+    public static Integer shardOf(String transactionId) {
+        int end = PARTITION_PREFIX_LENGTH + SHARD_LENGTH;
+        if (transactionId == null || transactionId.length() != ID_LENGTH
+                || !isDigits(transactionId, 0, end)) {
+            return null;
+        }
+        return Integer.parseInt(transactionId.substring(PARTITION_PREFIX_LENGTH, end));
+    }
+
+    private static boolean isDigits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * transaction 테이블은 최근 월(partitionKey = yyyyMM)만 들고 있도록 유지한다.
+ * 보관 기간이 지난 월은 transaction_p{yyyyMM} 테이블로 떼어내서
+ * 현재 테이블과 인덱스 크기가 전체 이력과 상관없이 일정하게 유지되도록 한다.
+ * 떼어낸 파티션은 거래 ID 의 월 정보로 바로 찾아간다.
+ * sharding 을 쓰면 같은 월 파티션을 모든 shard 에서 함께 떼어내므로 파티션 목록은 shard 와 상관없이 하나다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionPartitionManager {
+    private static final String PARTITION_TABLE_PREFIX = "transaction_p";
+    // LIKE 에서 '_' 는 한 글자 wildcard 이므로 escape 한다.
+    private static final String PARTITION_TABLE_PATTERN = "TRANSACTION\\_P%";
+    // 현재 테이블에 컬럼이 추가되어도 파티션 테이블과 컬럼 순서가 어긋나지 않도록 이름으로 옮긴다.
+    private static final String PARTITION_COLUMNS = "id, created_at, updated_at, transaction_type,"
+            + " transaction_result_type, account_id, amount, balance_snapshot, transaction_id, transacted_at,"
+            + " partition_key";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Integer> detachedPartitions = new ConcurrentSkipListSet<>();
+
+    @Value("${account.transaction-partition.retention-months:13}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDetachedPartitions() {
+        shardRouter.forEachShard(shard -> {
+            List<String> tableNames = jdbcTemplate.queryForList(
+                    "SELECT table_name FROM information_schema.tables WHERE UPPER(table_name) LIKE ? ESCAPE '\\'",
+                    String.class, PARTITION_TABLE_PATTERN);
+            for (String tableName : tableNames) {
+                String partitionKey = tableName.substring(PARTITION_TABLE_PREFIX.length());
+                if (partitionKey.matches("\\d{6}")) {
+                    detachedPartitions.add(Integer.parseInt(partitionKey));
+                }
+            }
+        });
+    }
+
+    @Scheduled(cron = "${account.transaction-partition.detach-cron:0 0 3 1 * *}")
+    public void detachExpiredPartitions() {
+        LocalDate cutoff = LocalDate.now().minusMonths(retentionMonths);
+        int cutoffKey = cutoff.getYear() * 100 + cutoff.getMonthValue();
+
+        Set<Integer> partitionKeys = new TreeSet<>();
+        shardRouter.forEachShard(shard -> partitionKeys.addAll(jdbcTemplate.queryForList(
+                "SELECT DISTINCT partition_key FROM transaction WHERE partition_key < ?",
+                Integer.class, cutoffKey)));
+        for (Integer partitionKey : partitionKeys) {
+            detach(partitionKey);
+        }
+    }
+
+    /**
+     * 한 달치 거래를 별도 테이블로 복사한 뒤 현재 테이블에서 지운다.
+     * shard 마다 복사와 삭제를 한 트랜잭션으로 실행하므로 복사만 되고 지워지지 않은 채 끝나지 않는다.
+     * 중간에 실패해도 다시 실행하면 복사되지 않은 행만 옮긴다.
+     * 그 달 거래가 없는 shard 에도 빈 테이블을 만들어 조회가 어느 shard 에서든 같은 테이블을 찾게 한다.
+     */
+    public void detach(int partitionKey) {
+        String table = getPartitionTable(partitionKey);
+        log.info("Detach transaction partition {} into {}", partitionKey, table);
+
+        boolean created = detachedPartitions.contains(partitionKey);
+        shardRouter.forEachShard(shard -> {
+            if (!created) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table
+                        + " AS SELECT " + PARTITION_COLUMNS + " FROM transaction WHERE 1 = 0");
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_transaction_id ON "
+                        + table + " (transaction_id)");
+                // 열 저장소로 옮길 때 transacted_at 순으로 나눠 읽는다.
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_transacted_at ON "
+                        + table + " (transacted_at, id)");
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO " + table + " (" + PARTITION_COLUMNS + ")"
+                        + " SELECT " + PARTITION_COLUMNS + " FROM transaction t"
+                        + " WHERE t.partition_key = ?"
+                        + " AND NOT EXISTS (SELECT 1 FROM " + table + " d WHERE d.id = t.id)", partitionKey);
+                jdbcTemplate.update("DELETE FROM transaction WHERE partition_key = ?", partitionKey);
+            });
+        });
+
+        detachedPartitions.add(partitionKey);
+    }
+
+    /**
+     * 열 저장소로 옮긴 파티션 테이블을 지운다.
+     */
+    public void drop(int partitionKey) {
+        detachedPartitions.remove(partitionKey);
+        shardRouter.forEachShard(shard ->
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + getPartitionTable(partitionKey)));
+    }
+
+    public Set<Integer> getDetachedPartitions() {
+        return detachedPartitions;
+    }
+
+    // 호출한 쪽에서 거래 ID 의 shard 를 지정한 상태로 부른다.
+    public Optional<TransactionDto> findDetached(String transactionId) {
+        Integer partitionKey = TransactionIdGenerator.partitionKeyOf(transactionId);
+        if (partitionKey == null || !detachedPartitions.contains(partitionKey)) {
+            return Optional.empty();
+        }
+
+        List<TransactionDto> transactions = jdbcTemplate.query(
+                "SELECT a.account_number, t.transaction_type, t.transaction_result_type, t.amount,"
+                        + " t.balance_snapshot, t.transaction_id, t.transacted_at"
+                        + " FROM " + getPartitionTable(partitionKey) + " t"
+                        + " JOIN account a ON a.id = t.account_id"
+                        + " WHERE t.transaction_id = ?",
+                (rs, rowNum) -> TransactionDto.builder()
+                        .accountNumber(rs.getString("account_number"))
+                        .transactionType(TransactionType.valueOf(rs.getString("transaction_type")))
+                        .transactionResultType(TransactionResultType.valueOf(rs.getString("transaction_result_type")))
+                        .amount(rs.getLong("amount"))
+                        .balanceSnapshot(rs.getLong("balance_snapshot"))
+                        .transactionId(rs.getString("transaction_id"))
+                        .transactedAt(rs.getTimestamp("transacted_at").toLocalDateTime())
+                        .build(),
+                transactionId);
+
+        return transactions.stream().findFirst();
+    }
+
+    public String getPartitionTable(int partitionKey) {
+        return PARTITION_TABLE_PREFIX + partitionKey;
+    }
+}
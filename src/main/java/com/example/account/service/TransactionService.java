@@ -1,24 +1,34 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
+import com.example.account.aop.AccountLockContext;
+import com.example.account.aop.ShardKey;
+import com.example.account.aop.ShardRouted;
 import com.example.account.domain.Account;
-import com.example.account.domain.AccountUser;
+import com.example.account.domain.BalanceHold;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.TransactionDto;
 import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.BalanceHoldRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
+import com.example.account.type.ShardKeyType;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -27,16 +37,81 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionPartitionManager transactionPartitionManager;
+    private final ColdTransactionStore coldTransactionStore;
+    private final DailySummaryService dailySummaryService;
+    private final AccountOwnershipCache accountOwnershipCache;
+    private final OutboxService outboxService;
+    private final BloomFilterService bloomFilterService;
+    private final ShardRouter shardRouter;
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final RedisBalanceCache redisBalanceCache;
+    private final AccountMetrics accountMetrics;
 
+    @Value("${account.hold.ttl-minutes:10080}")
+    private long holdTtlMinutes;
+
+    /**
+     * Bloom filter 로 확실히 없는 계좌를 DB 조회 없이 거절한다.
+     * 실패 거래를 남길 계좌도 없으므로 호출하는 쪽은 실패 기록을 남기는 구간보다 먼저 부른다.
+     */
+    public void rejectUnknownAccount(String accountNumber) {
+        if (!bloomFilterService.mightContainAccount(accountNumber)) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Bloom filter 로 확실히 없는 거래 ID 를 DB 조회 없이 거절한다.
+     */
+    public void rejectUnknownTransaction(String transactionId) {
+        if (!bloomFilterService.mightContainTransaction(transactionId)) {
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+    }
+
+    /**
+     * 계좌 lock 없이 사용자, 계좌 소유, 계좌 상태를 확인한다.
+     * 잔액도 미리 확인해서 확실히 부족한 요청은 lock 을 기다리지 않고 거절한다.
+     * 방금 만든 계좌도 찾아야 하므로 replica 가 아닌 primary 에서 읽도록 읽기 전용으로 두지 않는다.
+     */
+    @ShardRouted
     @Transactional
-    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
-        AccountUser user = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+    public void validateUseBalance(Long userId, @ShardKey String accountNumber, Long amount) {
+        // 이미 소유가 확인된 계좌면 사용자가 존재하므로 사용자 조회를 건너뛴다.
+        Long verifiedUserId = accountOwnershipCache.isOwner(userId, accountNumber)
+                ? userId
+                : accountUserRepository.findById(userId)
+                        .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND))
+                        .getId();
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-        validateUseBalance(user, account, amount);
 
+        if (!verifiedUserId.equals(account.getAccountUser().getId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+
+        if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+
+        validateBalance(account, amount);
+        accountOwnershipCache.put(verifiedUserId, accountNumber);
+    }
+
+    /**
+     * validateUseBalance 를 통과한 요청만 호출한다. lock 안에서는 잔액만 다시 확인하고 차감한다.
+     * 해지는 잔액이 0 이어야 하므로 그 사이 해지된 계좌도 잔액 확인에서 걸러진다.
+     */
+    @AccountLock
+    @ShardRouted
+    @Transactional
+    public TransactionDto useBalance(@ShardKey String accountNumber, Long amount) {
+        Account account = findAccountToUpdate(accountNumber);
+        validateBalance(account, amount);
+
+        redisBalanceCache.applyChange(account, -amount, 0L);
         account.useBalance(amount);
 
         Transaction transaction = saveAndGetTransaction(TransactionType.USE, TransactionResultType.S, amount, account);
@@ -44,22 +119,24 @@ public class TransactionService {
         return TransactionDto.fromEntity(transaction);
     }
 
-    private void validateUseBalance(AccountUser user, Account account, Long amount) {
-        if (!user.getId().equals(account.getAccountUser().getId())) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
-        }
-
-        if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
-        }
+    private Account findAccountToUpdate(String accountNumber) {
+        // Redis lock 대신 DB lock 을 쓰는 중이면 트랜잭션이 끝날 때까지 계좌 행을 잠근다.
+        Optional<Account> account = AccountLockContext.isDatabaseLock()
+                ? accountRepository.findForUpdateByAccountNumber(accountNumber)
+                : accountRepository.findByAccountNumber(accountNumber);
+        return account.orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
 
-        if (account.getBalance() < amount) {
+    // 승인으로 잡힌 금액은 쓸 수 없으므로 가용 잔액으로 확인한다.
+    private void validateBalance(Account account, Long amount) {
+        if (account.getAvailableBalance() < amount) {
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
     }
 
+    @ShardRouted
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+    public void saveFailedUseTransaction(@ShardKey String accountNumber, Long amount) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
@@ -67,57 +144,239 @@ public class TransactionService {
     }
 
     private Transaction saveAndGetTransaction(TransactionType transactionType,TransactionResultType transactionResultType, Long amount, Account account) {
-        return transactionRepository.save(
+        accountMetrics.countTransaction(transactionType, transactionResultType);
+        LocalDateTime transactedAt = LocalDateTime.now();
+        Transaction transaction = transactionRepository.save(
                 Transaction.builder()
                         .transactionType(transactionType)
                         .transactionResultType(transactionResultType)
                         .account(account)
                         .amount(amount)
                         .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
+                        .transactionId(TransactionIdGenerator.generate(
+                                transactedAt, shardRouter.shardOf(account.getAccountNumber())))
+                        .transactedAt(transactedAt)
+                        .partitionKey(TransactionIdGenerator.partitionKeyOf(transactedAt))
                         .build()
         );
+        dailySummaryService.record(transaction);
+        outboxService.append(transaction);
+        bloomFilterService.addTransaction(transaction.getTransactionId());
+        return transaction;
     }
 
+    /**
+     * 계좌 lock 없이 원거래와 취소 조건을 확인한다. 원거래의 금액과 시각은 바뀌지 않으므로 lock 이 필요 없다.
+     * 원거래는 같은 계좌의 거래이므로 계좌의 shard 에 있다. 방금 만든 거래도 찾도록 primary 에서 읽는다.
+     */
+    @ShardRouted
     @Transactional
-    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
-
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    public void validateCancelBalance(String transactionId, @ShardKey String accountNumber, Long amount) {
+        Optional<Transaction> transaction = transactionRepository.findByTransactionId(transactionId);
+        if (transaction.isPresent()) {
+            validateCancel(transaction.get().getAccount().getAccountNumber(), transaction.get().getAmount(),
+                    transaction.get().getTransactedAt(), accountNumber, amount);
+            return;
+        }
 
-        validateCancelBalance(transaction, account, amount);
-        account.cancelBalance(amount);
-        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S, amount, account));
+        // 보관 기간이 지나 떼어낸 거래도 queryTransaction 처럼 찾아서 없는 거래가 아니라 오래된 거래로 거절한다.
+        TransactionDto detached = transactionPartitionManager.findDetached(transactionId)
+                .or(() -> coldTransactionStore.find(transactionId))
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        validateCancel(detached.getAccountNumber(), detached.getAmount(), detached.getTransactedAt(),
+                accountNumber, amount);
     }
 
-    private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
-        if (!transaction.getAccount().getId().equals(account.getId())) {
+    private void validateCancel(String originalAccountNumber, Long originalAmount, LocalDateTime transactedAt,
+                                String accountNumber, Long amount) {
+        // 원거래의 계좌는 거래와 함께 읽히므로 계좌가 다를 때만 요청한 계좌가 있는지 확인한다.
+        if (!originalAccountNumber.equals(accountNumber)) {
+            if (accountRepository.findByAccountNumber(accountNumber).isEmpty()) {
+                throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+            }
             throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
         }
 
-        if (!transaction.getAmount().equals(amount)) {
+        if (!originalAmount.equals(amount)) {
             throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
         }
 
-        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1L))) {
+        if (transactedAt.isBefore(LocalDateTime.now().minusYears(1L))) {
             throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
         }
     }
 
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
+    /**
+     * validateCancelBalance 를 통과한 요청만 호출한다. lock 안에서는 잔액만 되돌린다.
+     */
+    @AccountLock
+    @ShardRouted
+    @Transactional
+    public TransactionDto cancelBalance(@ShardKey String accountNumber, Long amount) {
+        Account account = findAccountToUpdate(accountNumber);
+
+        redisBalanceCache.applyChange(account, amount, 0L);
+        account.cancelBalance(amount);
+        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S, amount, account));
+    }
+
+    @ShardRouted
+    @Transactional
+    public void saveFailedCancelTransaction(@ShardKey String accountNumber, Long amount) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
         saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.F, amount, account);
     }
 
-    public TransactionDto queryTransaction(String transactionId) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+    /**
+     * validateUseBalance 를 통과한 요청만 호출한다. 장부 잔액은 그대로 두고 보류 금액만 늘려 가용 잔액을 줄인다.
+     * 승인 ID 는 거래 ID 와 같은 형식이라 계좌의 shard 를 담고 있다.
+     */
+    @AccountLock
+    @ShardRouted
+    @Transactional
+    public HoldDto authorizeBalance(@ShardKey String accountNumber, Long amount) {
+        Account account = findAccountToUpdate(accountNumber);
+        validateBalance(account, amount);
+
+        redisBalanceCache.applyChange(account, 0L, amount);
+        accountRepository.addHeldBalance(account.getId(), amount);
+
+        LocalDateTime now = LocalDateTime.now();
+        BalanceHold hold = balanceHoldRepository.save(
+                BalanceHold.builder()
+                        .holdId(TransactionIdGenerator.generate(now, shardRouter.shardOf(accountNumber)))
+                        .account(account)
+                        .amount(amount)
+                        .status(HoldStatus.HELD)
+                        .expiresAt(now.plusMinutes(holdTtlMinutes))
+                        .build()
+        );
+        return HoldDto.fromEntity(hold, accountNumber);
+    }
+
+    /**
+     * 계좌 lock 없이 승인 상태와 매입 금액을 확인한다. 승인 금액보다 적게 매입하면 남은 금액은 풀린다.
+     * 방금 만든 승인도 찾아야 하므로 validateUseBalance 처럼 primary 에서 읽는다.
+     */
+    @ShardRouted
+    @Transactional
+    public void validateCaptureBalance(String holdId, @ShardKey String accountNumber, Long amount) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        BalanceHold hold = findHold(holdId, account);
+
+        if (hold.getStatus() != HoldStatus.HELD) {
+            throw new AccountException(ErrorCode.HOLD_NOT_ACTIVE);
+        }
+
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new AccountException(ErrorCode.HOLD_EXPIRED);
+        }
+
+        if (amount > hold.getAmount()) {
+            throw new AccountException(ErrorCode.CAPTURE_EXCEED_HOLD);
+        }
+    }
+
+    /**
+     * validateCaptureBalance 를 통과한 요청만 호출한다.
+     * 그 사이 취소, 만료된 승인은 조건부 UPDATE 에서 걸러진다.
+     * 만료 sweeper, 승인 취소와 같이 승인 행을 먼저 잠근 뒤 계좌 행을 잠근다.
+     * 순서가 다르면 DB lock 모드에서 매입과 sweeper 가 서로의 행을 기다리며 멈춘다.
+     */
+    @AccountLock
+    @ShardRouted
+    @Transactional
+    public TransactionDto captureBalance(@ShardKey String accountNumber, String holdId, Long amount) {
+        BalanceHold hold = balanceHoldRepository.findByHoldId(holdId)
+                .orElseThrow(() -> new AccountException(ErrorCode.HOLD_NOT_FOUND));
+        if (balanceHoldRepository.capture(hold.getId(), LocalDateTime.now()) == 0) {
+            throw new AccountException(ErrorCode.HOLD_NOT_ACTIVE);
+        }
+
+        // 계좌가 다르면 예외로 rollback 되어 위의 매입도 되돌아간다.
+        Account account = findAccountToUpdate(accountNumber);
+        if (!hold.getAccount().getId().equals(account.getId())) {
+            throw new AccountException(ErrorCode.HOLD_ACCOUNT_UN_MATCH);
+        }
+
+        redisBalanceCache.applyChange(account, -amount, -hold.getAmount());
+        account.captureBalance(amount);
+        accountRepository.addHeldBalance(account.getId(), -hold.getAmount());
+
+        Transaction transaction = saveAndGetTransaction(TransactionType.USE, TransactionResultType.S, amount, account);
 
         return TransactionDto.fromEntity(transaction);
     }
+
+    /**
+     * 승인을 취소한다. 장부 잔액을 바꾸지 않고 보류 금액만 상대값으로 줄이므로 계좌 lock 이 필요 없다.
+     */
+    @ShardRouted
+    @Transactional
+    public HoldDto voidBalance(String holdId, @ShardKey String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        BalanceHold hold = findHold(holdId, account);
+
+        if (balanceHoldRepository.close(hold.getId(), HoldStatus.VOIDED, LocalDateTime.now()) == 0) {
+            throw new AccountException(ErrorCode.HOLD_NOT_ACTIVE);
+        }
+
+        redisBalanceCache.applyChange(account, 0L, -hold.getAmount());
+        accountRepository.addHeldBalance(account.getId(), -hold.getAmount());
+
+        // 영속 상태의 승인은 조건부 UPDATE 전의 값이므로 바꾸지 않고 응답만 만든다.
+        return HoldDto.builder()
+                .accountNumber(accountNumber)
+                .holdId(hold.getHoldId())
+                .amount(hold.getAmount())
+                .status(HoldStatus.VOIDED)
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+
+    /**
+     * 승인, 매입, 승인 취소의 실패 거래를 요청한 작업의 유형으로 남긴다.
+     */
+    @ShardRouted
+    @Transactional
+    public void saveFailedHoldTransaction(TransactionType transactionType, @ShardKey String accountNumber, Long amount) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        saveAndGetTransaction(transactionType, TransactionResultType.F, amount, account);
+    }
+
+    private BalanceHold findHold(String holdId, Account account) {
+        BalanceHold hold = balanceHoldRepository.findByHoldId(holdId)
+                .orElseThrow(() -> new AccountException(ErrorCode.HOLD_NOT_FOUND));
+
+        // 계좌는 이미 읽었으므로 id 만 비교해 승인의 계좌를 따로 읽지 않는다.
+        if (!hold.getAccount().getId().equals(account.getId())) {
+            throw new AccountException(ErrorCode.HOLD_ACCOUNT_UN_MATCH);
+        }
+        return hold;
+    }
+
+    @ShardRouted
+    @Transactional(readOnly = true)
+    public TransactionDto queryTransaction(@ShardKey(ShardKeyType.TRANSACTION_ID) String transactionId) {
+        // 한 번도 저장된 적 없는 ID 는 현재 테이블, 파티션, 열 저장소 어디에도 없다.
+        if (!bloomFilterService.mightContainTransaction(transactionId)) {
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+
+        Optional<Transaction> transaction = transactionRepository.findByTransactionId(transactionId);
+        if (transaction.isPresent()) {
+            return TransactionDto.fromEntity(transaction.get());
+        }
+
+        // 현재 테이블에 없으면 ID 의 월 정보로 떼어낸 파티션, 열 저장소 순으로 한 곳씩만 조회한다.
+        return transactionPartitionManager.findDetached(transactionId)
+                .or(() -> coldTransactionStore.find(transactionId))
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+    }
 }
@@ -11,6 +11,7 @@ public enum ErrorCode {
     MAX_ACCOUNT_PER_USER_10("사용자당 최대 계좌 개수는 10개 입니다."),
     ACCOUNT_NOT_FOUND("계좌가 없습니다."),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중 입니다."),
+    ACCOUNT_LOCK_QUEUE_FULL("해당 계좌에 처리 대기 중인 거래가 많습니다. 잠시 후 다시 시도해 주세요."),
     AMOUNT_EXCEED_BALANCE("거래 금액이 계좌 잔액보다 큽니다."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 중지되었습니다"),
     TRANSACTION_NOT_FOUND("해당 거래가 없습니다"),
@@ -19,7 +20,15 @@ public enum ErrorCode {
     CANCEL_MUST_FULLY("거래는 전액 환불만 가능합니다"),
     TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능 합니다"),
     TRANSACTION_ACCOUNT_UN_MATCH("거래한 계좌가 아닙니다."),
-    INVALID_REQUEST("거래 취소 금액은 양수여야 합니다.");
+    INVALID_REQUEST("거래 취소 금액은 양수여야 합니다."),
+    INVALID_DATE_RANGE("조회 기간이 올바르지 않습니다."),
+    TOO_MANY_REQUESTS("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요."),
+    SERVICE_OVERLOADED("처리 중인 요청이 많아 요청을 받을 수 없습니다. 잠시 후 다시 시도해 주세요."),
+    HOLD_NOT_FOUND("승인 내역이 없습니다."),
+    HOLD_ACCOUNT_UN_MATCH("승인한 계좌가 아닙니다."),
+    HOLD_NOT_ACTIVE("이미 매입, 취소 또는 만료된 승인입니다."),
+    HOLD_EXPIRED("승인 유효 기간이 지났습니다."),
+    CAPTURE_EXCEED_HOLD("매입 금액이 승인 금액보다 큽니다.");
 
     private final String description;
 }
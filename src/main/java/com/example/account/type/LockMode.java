@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum LockMode {
+    // 대기 순서를 보장하지 않는 일반 RLock
+    STANDARD,
+    // 먼저 기다린 요청이 먼저 lock 을 얻는 Redisson fair lock
+    FAIR
+}
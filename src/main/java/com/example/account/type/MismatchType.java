@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum MismatchType {
+    // 계좌 잔액이 마지막 거래의 balanceSnapshot 과 다름
+    BALANCE_MISMATCH,
+    // 거래의 balanceSnapshot 이 직전 snapshot 에 거래 금액을 반영한 값과 다름
+    SNAPSHOT_CHAIN_BROKEN
+}
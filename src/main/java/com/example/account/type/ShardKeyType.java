@@ -0,0 +1,7 @@
+package com.example.account.type;
+
+public enum ShardKeyType {
+    ACCOUNT_NUMBER,
+    // 거래 ID 에 shard 번호가 들어 있다.
+    TRANSACTION_ID
+}
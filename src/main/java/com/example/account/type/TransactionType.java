@@ -1,5 +1,9 @@
 package com.example.account.type;
 
+/**
+ * 승인(AUTHORIZE), 매입(CAPTURE), 승인 취소(VOID)는 실패 거래에만 쓴다.
+ * 성공한 승인과 승인 취소는 장부 잔액을 바꾸지 않아 거래로 남지 않고, 성공한 매입은 잔액을 쓰므로 USE 로 남는다.
+ */
 public enum TransactionType {
-    USE, CANCEL
+    USE, CANCEL, AUTHORIZE, CAPTURE, VOID
 }
@@ -0,0 +1,101 @@
+package com.example.account.config;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.aop.ConcurrencyLimited;
+import com.example.account.aop.RateLimit;
+import com.example.account.controller.TransactionController;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.BalanceHold;
+import com.example.account.domain.DailyAccountSummary;
+import com.example.account.domain.OutboxEvent;
+import com.example.account.domain.ReconciliationCheckpoint;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.*;
+import com.example.account.service.AccountService;
+import com.example.account.service.DailySummaryService;
+import com.example.account.service.OutboxService;
+import com.example.account.service.TransactionService;
+import com.example.account.type.*;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.SynthesizedAnnotation;
+import org.springframework.nativex.hint.AotProxyHint;
+import org.springframework.nativex.hint.JdkProxyHint;
+import org.springframework.nativex.hint.NativeHint;
+import org.springframework.nativex.hint.ProxyBits;
+import org.springframework.nativex.hint.ResourceHint;
+import org.springframework.nativex.hint.TypeAccess;
+import org.springframework.nativex.hint.TypeHint;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * native-image 빌드(-Pnative)에서만 컴파일되는 reflection / proxy 힌트.
+ *
+ * native image 는 런타임에 CGLIB 클래스를 만들 수 없으므로
+ * LockAopAspect 와 @Transactional 이 적용되는 클래스의 proxy 는 빌드 시점에 만들어 둔다.
+ */
+@Configuration(proxyBeanMethods = false)
+@NativeHint(
+        types = {
+                // Jackson 이 Lombok 생성자/getter 로 직렬화하는 DTO
+                @TypeHint(types = {
+                        AccountDto.class, AccountInfo.class, DailySummaryDto.class, ErrorResponse.class,
+                        HoldDto.class, QueryTransactionResponse.class, RedisTransactionRecord.class, TransactionDto.class,
+                        TransactionEvent.class,
+                        ReconciliationReport.class, ReconciliationReport.Mismatch.class,
+                        CreateAccount.Request.class, CreateAccount.Response.class,
+                        BulkCreateAccount.Request.class, BulkCreateAccount.Response.class, BulkCreateAccount.Item.class,
+                        DeleteAccount.Request.class, DeleteAccount.Response.class,
+                        UseBalance.Request.class, UseBalance.Response.class,
+                        CancelBalance.Request.class, CancelBalance.Response.class,
+                        AuthorizeBalance.Request.class, AuthorizeBalance.Response.class,
+                        CaptureBalance.Request.class, CaptureBalance.Response.class,
+                        VoidBalance.Request.class, VoidBalance.Response.class
+                }, access = {TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_FIELDS, TypeAccess.PUBLIC_METHODS}),
+                @TypeHint(types = {
+                        AccountStatus.class, CircuitState.class, ErrorCode.class, HoldStatus.class, LockMode.class,
+                        MismatchType.class, TransactionResultType.class, TransactionType.class
+                }, access = {TypeAccess.DECLARED_FIELDS, TypeAccess.PUBLIC_METHODS}),
+                // Hibernate 가 필드 접근으로 읽고 쓰는 엔티티
+                @TypeHint(types = {
+                        Account.class, AccountUser.class, BalanceHold.class, Transaction.class,
+                        DailyAccountSummary.class, OutboxEvent.class, ReconciliationCheckpoint.class
+                }, access = {TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_FIELDS, TypeAccess.DECLARED_METHODS}),
+                // Redisson 은 설정된 codec 과 설정 객체를 reflection 으로 만든다.
+                @TypeHint(typeNames = {
+                        "org.redisson.client.codec.StringCodec",
+                        "org.redisson.client.codec.LongCodec",
+                        "org.redisson.codec.MarshallingCodec",
+                        "org.redisson.config.Config",
+                        "org.redisson.config.SingleServerConfig",
+                        "org.redisson.connection.SingleConnectionManager"
+                }, access = {TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_FIELDS, TypeAccess.PUBLIC_METHODS})
+        },
+        aotProxies = {
+                @AotProxyHint(targetClass = TransactionController.class, proxyFeatures = ProxyBits.IS_STATIC),
+                @AotProxyHint(targetClass = TransactionService.class, proxyFeatures = ProxyBits.IS_STATIC),
+                @AotProxyHint(targetClass = AccountService.class, proxyFeatures = ProxyBits.IS_STATIC),
+                @AotProxyHint(targetClass = DailySummaryService.class, proxyFeatures = ProxyBits.IS_STATIC),
+                @AotProxyHint(targetClass = OutboxService.class, proxyFeatures = ProxyBits.IS_STATIC)
+        },
+        // aspect 가 annotation 을 인자로 바인딩할 때 합성 annotation proxy 를 쓴다.
+        jdkProxies = {
+                @JdkProxyHint(types = {AccountLock.class, SynthesizedAnnotation.class}),
+                @JdkProxyHint(types = {RateLimit.class, SynthesizedAnnotation.class}),
+                @JdkProxyHint(types = {ConcurrencyLimited.class, SynthesizedAnnotation.class}),
+                // SqlStatementCounter 가 SQL 실행을 세려고 감싸는 JDBC 객체
+                @JdkProxyHint(types = DataSource.class),
+                @JdkProxyHint(types = Connection.class),
+                @JdkProxyHint(types = Statement.class),
+                @JdkProxyHint(types = PreparedStatement.class),
+                @JdkProxyHint(types = CallableStatement.class)
+        },
+        resources = @ResourceHint(patterns = {"data.sql", "application-native.yml"})
+)
+public class NativeHintsConfiguration {
+}
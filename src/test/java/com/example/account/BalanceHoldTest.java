@@ -0,0 +1,125 @@
+package com.example.account;
+
+import com.example.account.controller.TransactionController;
+import com.example.account.domain.Account;
+import com.example.account.dto.AuthorizeBalance;
+import com.example.account.dto.CaptureBalance;
+import com.example.account.dto.VoidBalance;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.service.AccountService;
+import com.example.account.service.BalanceHoldSweeper;
+import com.example.account.type.HoldStatus;
+import com.example.account.type.TransactionResultType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 승인, 매입, 승인 취소, 만료를 H2 에 실제로 반영해서 장부 잔액과 보류 금액이 맞게 바뀌는지 확인한다.
+ * 보류 금액은 상대 UPDATE 로만 바뀌므로 계좌는 매번 DB 에서 다시 읽는다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=16387",
+        "account.rate-limit.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:balanceholdtest;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "account.hold.sweep-interval-ms=3600000"
+})
+class BalanceHoldTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private BalanceHoldSweeper balanceHoldSweeper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String accountNumber;
+
+    @BeforeEach
+    void setUp() {
+        accountNumber = accountService.createAccount(1L, 10000L).getAccountNumber();
+    }
+
+    @Test
+    @DisplayName("승인한 금액은 가용 잔액에서 빠지고 매입하면 장부 잔액에서 빠진다")
+    void authorizeAndCapture() {
+        // given
+        String holdId = authorize(3000L);
+        Account authorized = account();
+
+        // when
+        CaptureBalance.Response response = transactionController.captureBalance(
+                new CaptureBalance.Request(holdId, accountNumber, 2000L));
+
+        // then
+        assertEquals(10000L, authorized.getBalance());
+        assertEquals(3000L, authorized.getHeldBalance());
+        assertEquals(TransactionResultType.S, response.getTransactionResult());
+        assertEquals(8000L, account().getBalance());
+        assertEquals(0L, account().getHeldBalance());
+        assertEquals(HoldStatus.CAPTURED, balanceHoldRepository.findByHoldId(holdId).get().getStatus());
+    }
+
+    @Test
+    @DisplayName("승인을 취소하면 장부 잔액은 그대로 두고 보류 금액만 푼다")
+    void authorizeAndVoid() {
+        // given
+        String holdId = authorize(3000L);
+
+        // when
+        VoidBalance.Response response = transactionController.voidBalance(
+                new VoidBalance.Request(holdId, accountNumber));
+
+        // then
+        assertEquals(HoldStatus.VOIDED, response.getStatus());
+        assertEquals(10000L, account().getBalance());
+        assertEquals(0L, account().getHeldBalance());
+        assertEquals(HoldStatus.VOIDED, balanceHoldRepository.findByHoldId(holdId).get().getStatus());
+    }
+
+    @Test
+    @DisplayName("유효 기간이 지난 승인은 sweeper 가 만료시키고 보류 금액을 푼다")
+    void sweepExpiredHold() {
+        // given
+        String expired = authorize(3000L);
+        String active = authorize(1000L);
+        jdbcTemplate.update("UPDATE balance_hold SET expires_at = ? WHERE hold_id = ?",
+                LocalDateTime.now().minusMinutes(1), expired);
+
+        // when
+        balanceHoldSweeper.sweep();
+
+        // then
+        assertEquals(HoldStatus.EXPIRED, balanceHoldRepository.findByHoldId(expired).get().getStatus());
+        assertEquals(HoldStatus.HELD, balanceHoldRepository.findByHoldId(active).get().getStatus());
+        assertEquals(10000L, account().getBalance());
+        assertEquals(1000L, account().getHeldBalance());
+    }
+
+    private String authorize(Long amount) {
+        return transactionController.authorizeBalance(
+                new AuthorizeBalance.Request(1L, accountNumber, amount)).getHoldId();
+    }
+
+    private Account account() {
+        return accountRepository.findByAccountNumber(accountNumber).get();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.account;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.metrics.SqlStatementCounter;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * endpoint 별로 요청 하나가 실행할 수 있는 SQL 수의 상한을 정해 두고 넘으면 실패한다.
+ * 지연 로딩 누락(N+1)이나 hot path 에 추가된 round trip 을 리뷰 전에 잡기 위한 테스트다.
+ * JDBC 수준에서 세므로 JdbcTemplate 으로 실행하는 SQL 도 포함된다.
+ * 상한을 올려야 한다면 늘어난 SQL 이 정말 필요한지 먼저 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=16383",
+        "spring.datasource.url=jdbc:h2:mem:querybudget"
+})
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void createAccount() throws Exception {
+        // 사용자, 계좌 수, 마지막 계좌(+소유자), sequence, insert
+        assertWithinBudget(5, post("/account")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":2,\"initialBalance\":1000}"));
+    }
+
+    @Test
+    void createAccountsInBulk() throws Exception {
+        // 사용자 일괄 조회, 묶음 count, 마지막 계좌(+소유자), 항목당 sequence 5, batch insert
+        assertWithinBudget(9, post("/account/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"accounts\":[" +
+                        "{\"userId\":3,\"initialBalance\":1000},{\"userId\":3,\"initialBalance\":1000}," +
+                        "{\"userId\":3,\"initialBalance\":1000},{\"userId\":3,\"initialBalance\":1000}," +
+                        "{\"userId\":3,\"initialBalance\":1000}]}"));
+    }
+
+    @Test
+    void getAccountsByUserId() throws Exception {
+        accountService.createAccount(1L, 1000L);
+        accountService.createAccount(1L, 1000L);
+
+        // 사용자(2차 캐시에 없을 때), 계좌 목록. 계좌 수와 무관해야 한다.
+        assertWithinBudget(2, get("/account?user_id=1"));
+    }
+
+    @Test
+    void useBalance() throws Exception {
+        AccountDto account = accountService.createAccount(1L, 10000L);
+
+        // lock 밖: 사용자(소유 확인 캐시에 없을 때), 계좌
+        // lock 안: 계좌, 거래 sequence, 집계 update(그날 첫 거래면 +insert), 거래 insert, outbox insert, 계좌 update
+        assertWithinBudget(9, post("/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1,\"accountNumber\":\"" + account.getAccountNumber() + "\",\"amount\":1000}"));
+    }
+
+    @Test
+    void cancelBalance() throws Exception {
+        AccountDto account = accountService.createAccount(1L, 10000L);
+        TransactionDto transaction = transactionService.useBalance(account.getAccountNumber(), 1000L);
+
+        // lock 밖: 거래, 거래의 계좌
+        // lock 안: 계좌, 거래 sequence, 집계 update(그날 첫 거래면 +insert), 거래 insert, outbox insert, 계좌 update
+        assertWithinBudget(9, post("/transaction/cancel")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"transactionId\":\"" + transaction.getTransactionId()
+                        + "\",\"accountNumber\":\"" + account.getAccountNumber() + "\",\"amount\":1000}"));
+    }
+
+    @Test
+    void queryTransaction() throws Exception {
+        AccountDto account = accountService.createAccount(1L, 10000L);
+        TransactionDto transaction = transactionService.useBalance(account.getAccountNumber(), 1000L);
+
+        // 거래, 거래의 계좌(+소유자 join)
+        assertWithinBudget(2, get("/transaction/" + transaction.getTransactionId()));
+    }
+
+    private void assertWithinBudget(int maxStatements, RequestBuilder request) throws Exception {
+        // MockMvc 는 요청을 테스트 스레드에서 처리하므로 스레드별 counter 로 이 요청의 SQL 만 센다.
+        SqlStatementCounter.reset();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").doesNotExist());
+        int statements = SqlStatementCounter.count();
+
+        assertTrue(statements <= maxStatements,
+                "Expected at most " + maxStatements + " SQL statements but was " + statements);
+    }
+}
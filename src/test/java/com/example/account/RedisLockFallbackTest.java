@@ -0,0 +1,74 @@
+package com.example.account;
+
+import com.example.account.config.LocalRedisConfig;
+import com.example.account.controller.TransactionController;
+import com.example.account.dto.UseBalance;
+import com.example.account.repository.AccountRepository;
+import com.example.account.service.AccountService;
+import com.example.account.service.LockService;
+import com.example.account.type.CircuitState;
+import com.example.account.type.TransactionResultType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * embedded Redis 를 멈춘 동안에는 DB 행 lock 으로 거래가 계속 처리되고,
+ * Redis 가 돌아오면 circuit 이 닫혀 다시 Redis lock 을 쓰는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=16384",
+        "spring.datasource.url=jdbc:h2:mem:lockfallback;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "account.rate-limit.enabled=false"
+})
+class RedisLockFallbackTest {
+    @Autowired
+    private LocalRedisConfig localRedisConfig;
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LockService lockService;
+
+    @Test
+    void useDatabaseLockWhileRedisIsDown() throws Exception {
+        // given
+        String accountNumber = accountService.createAccount(1L, 10000L).getAccountNumber();
+        localRedisConfig.stopRedis();
+
+        try {
+            // when
+            for (int i = 0; i < 5; i++) {
+                UseBalance.Response response = transactionController.useBalance(
+                        new UseBalance.Request(1L, accountNumber, 100L));
+                assertEquals(TransactionResultType.S, response.getTransactionResult());
+            }
+
+            // then
+            assertEquals(CircuitState.OPEN, lockService.getCircuitState());
+            assertEquals(9500L, accountRepository.findByAccountNumber(accountNumber).get().getBalance());
+        } finally {
+            localRedisConfig.startRedis();
+            localRedisConfig.awaitStarted();
+        }
+
+        // Redis 가 돌아오면 open 시간이 지난 뒤 시험 요청으로 circuit 이 닫힌다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (lockService.getCircuitState() != CircuitState.CLOSED && System.nanoTime() < deadline) {
+            transactionController.useBalance(new UseBalance.Request(1L, accountNumber, 100L));
+            Thread.sleep(500);
+        }
+        assertEquals(CircuitState.CLOSED, lockService.getCircuitState());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.account;
+
+import com.example.account.config.ReadYourWritesTracker;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.HoldDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * primary 와 replica 를 서로 다른 H2 로 띄워 replica 가 primary 의 schema 와 기준 데이터로 채워지고,
+ * 읽기 전용 조회는 replica 로, 방금 쓴 client 의 조회는 primary 로 가는지 확인한다.
+ * 로컬 replica 는 복제되지 않으므로 기동 뒤에 만든 계좌는 replica 에 없다.
+ * 거래 전 검증은 primary 에서 읽으므로 기동 뒤에 만든 계좌, 거래, 승인도 찾는다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=16386",
+        "account.rate-limit.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:replicationtest-primary;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "account.datasource.replica.enabled=true",
+        "account.datasource.replica.url=jdbc:h2:mem:replicationtest-replica;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "account.datasource.read-your-writes.enabled=true"
+})
+class ReplicationTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @AfterEach
+    void tearDown() {
+        readYourWritesTracker.clearCurrentClient();
+    }
+
+    @Test
+    void readFromReplicaUnlessRecentWriter() {
+        // given
+        List<String> before = accountNumbersOf(1L);
+        String created = accountService.createAccount(1L, 10000L).getAccountNumber();
+
+        // when
+        List<String> fromReplica = accountNumbersOf(1L);
+        readYourWritesTracker.setCurrentClient("client-1");
+        accountService.createAccount(1L, 10000L);
+        List<String> fromPrimary = accountNumbersOf(1L);
+
+        // then
+        assertEquals(before, fromReplica);
+        assertFalse(fromReplica.contains(created));
+        assertTrue(fromPrimary.contains(created));
+        assertEquals(before.size() + 2, fromPrimary.size());
+    }
+
+    @Test
+    void validateOnPrimary() {
+        // given
+        String accountNumber = accountService.createAccount(2L, 10000L).getAccountNumber();
+
+        // when
+        transactionService.validateUseBalance(2L, accountNumber, 1000L);
+        TransactionDto used = transactionService.useBalance(accountNumber, 1000L);
+
+        // then
+        assertEquals(9000L, used.getBalanceSnapshot());
+        assertDoesNotThrow(() ->
+                transactionService.validateCancelBalance(used.getTransactionId(), accountNumber, 1000L));
+    }
+
+    @Test
+    void validateCaptureOnPrimary() {
+        // given
+        String accountNumber = accountService.createAccount(3L, 10000L).getAccountNumber();
+        HoldDto hold = transactionService.authorizeBalance(accountNumber, 1000L);
+
+        // when
+        // then
+        assertDoesNotThrow(() ->
+                transactionService.validateCaptureBalance(hold.getHoldId(), accountNumber, 1000L));
+    }
+
+    private List<String> accountNumbersOf(Long userId) {
+        return accountService.getAccountsByUserId(userId).stream()
+                .map(AccountDto::getAccountNumber)
+                .collect(Collectors.toList());
+    }
+}
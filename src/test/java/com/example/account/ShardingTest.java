@@ -0,0 +1,111 @@
+package com.example.account;
+
+import com.example.account.controller.TransactionController;
+import com.example.account.domain.OutboxEvent;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.OutboxEventRepository;
+import com.example.account.service.AccountService;
+import com.example.account.service.ShardRouter;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.service.TransactionService;
+import com.example.account.type.TransactionResultType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 두 H2 shard 로 띄워 계좌가 나뉘어 저장되고, 거래와 조회가 계좌의 shard 로 찾아가는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=16385",
+        "account.rate-limit.enabled=false",
+        "account.sharding.enabled=true",
+        "account.sharding.shards[0].url=jdbc:h2:mem:shardtest0",
+        "account.sharding.shards[1].url=jdbc:h2:mem:shardtest1"
+})
+class ShardingTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Test
+    void routeAccountsAndTransactionsToTheirShard() {
+        // given
+        String first = accountService.createAccount(1L, 10000L).getAccountNumber();
+        String second = accountService.createAccount(1L, 10000L).getAccountNumber();
+
+        // when
+        UseBalance.Response response = transactionController.useBalance(
+                new UseBalance.Request(1L, second, 1000L));
+        TransactionDto transaction = transactionService.queryTransaction(response.getTransactionId());
+        List<String> accountNumbers = accountService.getAccountsByUserId(1L).stream()
+                .map(AccountDto::getAccountNumber)
+                .collect(Collectors.toList());
+
+        // then
+        int firstShard = shardRouter.shardOf(first);
+        int secondShard = shardRouter.shardOf(second);
+        assertNotEquals(firstShard, secondShard);
+        assertTrue(shardRouter.onShard(firstShard, () -> accountRepository.findByAccountNumber(first)).isPresent());
+        assertFalse(shardRouter.onShard(secondShard, () -> accountRepository.findByAccountNumber(first)).isPresent());
+
+        assertEquals(TransactionResultType.S, response.getTransactionResult());
+        assertEquals(secondShard, TransactionIdGenerator.shardOf(response.getTransactionId()));
+        assertEquals(second, transaction.getAccountNumber());
+        assertEquals(9000L, shardRouter.onShard(secondShard,
+                () -> accountRepository.findByAccountNumber(second)).get().getBalance());
+        assertTrue(accountNumbers.containsAll(List.of(first, second)));
+    }
+
+    @Test
+    void generateDisjointIdsPerShard() {
+        // given
+        String first = accountService.createAccount(2L, 10000L).getAccountNumber();
+        String second = accountService.createAccount(2L, 10000L).getAccountNumber();
+        int firstShard = shardRouter.shardOf(first);
+        int secondShard = shardRouter.shardOf(second);
+
+        // when
+        transactionController.useBalance(new UseBalance.Request(2L, first, 1000L));
+        transactionController.useBalance(new UseBalance.Request(2L, second, 1000L));
+
+        // then
+        assertNotEquals(firstShard, secondShard);
+        assertNotEquals(
+                shardRouter.onShard(firstShard, () -> accountRepository.findByAccountNumber(first)).get().getId(),
+                shardRouter.onShard(secondShard, () -> accountRepository.findByAccountNumber(second)).get().getId());
+        List<Long> firstEventIds = shardRouter.onShard(firstShard, () -> outboxEventIds());
+        List<Long> secondEventIds = shardRouter.onShard(secondShard, () -> outboxEventIds());
+        assertFalse(firstEventIds.isEmpty());
+        assertFalse(secondEventIds.isEmpty());
+        assertTrue(firstEventIds.stream().noneMatch(secondEventIds::contains));
+    }
+
+    private List<Long> outboxEventIds() {
+        return outboxEventRepository.findAll().stream()
+                .map(OutboxEvent::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.account;
+
+import com.example.account.controller.TransactionController;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.service.AccountService;
+import com.example.account.service.RedisBalancePersister;
+import com.example.account.service.RedisBalanceService;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 실제 embedded Redis 와 H2 위에서 여러 스레드가 소수의 계좌에 사용/취소를 동시에 요청한다.
+ * 계좌마다 최종 잔액이 초기 잔액 - 성공한 사용 합계 + 성공한 취소 합계 와 같은지 확인하고,
+ * lock 방식별 초당 처리량을 build/reports/stress/results.csv 에 남긴다.
+ */
+@SpringBootTest(properties = {
+        "spring.redis.port=16382",
+        "spring.datasource.url=jdbc:h2:mem:stress;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "account.balance-engine.redis.enabled=true",
+        // lock 방식끼리 비교하므로 요청 제한과 동시 처리 한도는 끈다.
+        "account.rate-limit.enabled=false",
+        "account.concurrency-limit.enabled=false",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false"
+})
+class TransactionConcurrencyStressTest {
+    private static final int THREADS = Integer.getInteger("stress.threads", 16);
+    private static final int OPERATIONS_PER_THREAD = Integer.getInteger("stress.operations", 100);
+    private static final int ACCOUNTS = 4;
+    private static final long INITIAL_BALANCE = 1_000_000L;
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private RedisBalanceService redisBalanceService;
+
+    @Autowired
+    private RedisBalancePersister redisBalancePersister;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"redisson-lock", "redis-engine"})
+    void noLostUpdates(String lockMode) throws Exception {
+        // given
+        long userId = "redisson-lock".equals(lockMode) ? 1L : 2L;
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers.add(accountService.createAccount(userId, INITIAL_BALANCE).getAccountNumber());
+        }
+        BalanceClient client = "redisson-lock".equals(lockMode) ? lockedClient() : redisEngineClient();
+
+        // when
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Deque<String[]> used = new ArrayDeque<>();
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    try {
+                        if (!used.isEmpty() && random.nextInt(10) < 3) {
+                            String[] target = used.poll();
+                            client.cancel(target[0], target[1], Long.parseLong(target[2]));
+                        } else {
+                            String accountNumber = accountNumbers.get(random.nextInt(ACCOUNTS));
+                            long amount = 10 + random.nextInt(1000);
+                            String transactionId = client.use(userId, accountNumber, amount);
+                            used.add(new String[]{transactionId, accountNumber, String.valueOf(amount)});
+                        }
+                        succeeded.incrementAndGet();
+                    } catch (AccountException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+        client.flush();
+
+        // then
+        Map<String, List<Transaction>> transactions = transactionRepository.findAll().stream()
+                .filter(transaction -> accountNumbers.contains(transaction.getAccount().getAccountNumber()))
+                .collect(Collectors.groupingBy(transaction -> transaction.getAccount().getAccountNumber()));
+        long successRows = 0;
+        for (String accountNumber : accountNumbers) {
+            Account account = accountRepository.findByAccountNumber(accountNumber).get();
+            long expected = INITIAL_BALANCE;
+            for (Transaction transaction : transactions.getOrDefault(accountNumber, Collections.emptyList())) {
+                if (transaction.getTransactionResultType() != TransactionResultType.S) {
+                    continue;
+                }
+                successRows++;
+                expected += transaction.getTransactionType() == TransactionType.USE
+                        ? -transaction.getAmount() : transaction.getAmount();
+            }
+            assertEquals(expected, account.getBalance(), "balance of " + accountNumber);
+        }
+        assertEquals(succeeded.get(), successRows);
+
+        double opsPerSecond = (succeeded.get() + rejected.get()) / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf("[stress] %s: %d ok, %d rejected, %.1f ops/s%n",
+                lockMode, succeeded.get(), rejected.get(), opsPerSecond);
+        record(lockMode, succeeded.get(), rejected.get(), opsPerSecond);
+    }
+
+    private BalanceClient lockedClient() {
+        return new BalanceClient() {
+            @Override
+            public String use(long userId, String accountNumber, long amount) {
+                return transactionController.useBalance(
+                        new UseBalance.Request(userId, accountNumber, amount)).getTransactionId();
+            }
+
+            @Override
+            public void cancel(String transactionId, String accountNumber, long amount) {
+                transactionController.cancelBalance(
+                        new CancelBalance.Request(transactionId, accountNumber, amount));
+            }
+        };
+    }
+
+    private BalanceClient redisEngineClient() {
+        return new BalanceClient() {
+            @Override
+            public String use(long userId, String accountNumber, long amount) {
+                return redisBalanceService.useBalance(userId, accountNumber, amount).getTransactionId();
+            }
+
+            @Override
+            public void cancel(String transactionId, String accountNumber, long amount) {
+                redisBalanceService.cancelBalance(transactionId, accountNumber, amount);
+            }
+
+            @Override
+            public void flush() throws InterruptedException {
+                long deadline = System.currentTimeMillis() + 30_000L;
+                while (!redissonClient.getList(RedisBalanceService.QUEUE_KEY, StringCodec.INSTANCE).isEmpty()) {
+                    assertTrue(System.currentTimeMillis() < deadline, "redis change queue was not drained");
+                    redisBalancePersister.drain();
+                    Thread.sleep(50L);
+                }
+            }
+        };
+    }
+
+    private void record(String lockMode, long succeeded, long rejected, double opsPerSecond) throws IOException {
+        Path path = Paths.get("build", "reports", "stress", "results.csv");
+        Files.createDirectories(path.getParent());
+        String line = String.format("%d,%s,%d,%d,%d,%.1f%n",
+                System.currentTimeMillis(), lockMode, THREADS, succeeded, rejected, opsPerSecond);
+        Files.write(path, line.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private interface BalanceClient {
+        String use(long userId, String accountNumber, long amount);
+
+        void cancel(String transactionId, String accountNumber, long amount);
+
+        default void flush() throws InterruptedException {
+        }
+    }
+}
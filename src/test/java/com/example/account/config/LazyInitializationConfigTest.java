@@ -0,0 +1,37 @@
+package com.example.account.config;
+
+import com.example.account.service.AccountService;
+import com.example.account.service.ColdTransactionArchiver;
+import com.example.account.service.TransactionPartitionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyInitializationConfigTest {
+    private final LazyInitializationExcludeFilter filter = LazyInitializationConfig.scheduledBeansExcludeFilter();
+
+    @Test
+    @DisplayName("@Scheduled 메서드가 있는 bean 은 지연 생성에서 제외")
+    void excludeScheduledBeans() {
+        // given
+        // when
+        // then
+        assertTrue(filter.isExcluded("transactionPartitionManager",
+                new RootBeanDefinition(TransactionPartitionManager.class), TransactionPartitionManager.class));
+        assertTrue(filter.isExcluded("coldTransactionArchiver",
+                new RootBeanDefinition(ColdTransactionArchiver.class), ColdTransactionArchiver.class));
+    }
+
+    @Test
+    void keepOtherBeansLazy() {
+        // given
+        // when
+        // then
+        assertFalse(filter.isExcluded("accountService",
+                new RootBeanDefinition(AccountService.class), AccountService.class));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.account.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicationRoutingDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writeGoesToPrimary() {
+        // given
+        ReplicationRoutingDataSource dataSource = new ReplicationRoutingDataSource(
+                new ReadYourWritesTracker(false, 1000L));
+        // when
+        // then
+        assertEquals(ReplicationRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyGoesToReplica() {
+        // given
+        ReplicationRoutingDataSource dataSource = new ReplicationRoutingDataSource(
+                new ReadYourWritesTracker(false, 1000L));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        // when
+        // then
+        assertEquals(ReplicationRoutingDataSource.REPLICA, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("쓰기 직후 같은 client 의 읽기는 primary")
+    void readYourWrites() {
+        // given
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(true, 60_000L);
+        ReplicationRoutingDataSource dataSource = new ReplicationRoutingDataSource(tracker);
+        tracker.setCurrentClient("client-1");
+        dataSource.determineCurrentLookupKey();
+
+        // when
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object writerRead = dataSource.determineCurrentLookupKey();
+        tracker.setCurrentClient("client-2");
+        Object otherRead = dataSource.determineCurrentLookupKey();
+        tracker.clearCurrentClient();
+
+        // then
+        assertEquals(ReplicationRoutingDataSource.PRIMARY, writerRead);
+        assertEquals(ReplicationRoutingDataSource.REPLICA, otherRead);
+    }
+
+    @Test
+    @DisplayName("read-your-writes 시간이 지나면 replica")
+    void readYourWritesExpires() throws InterruptedException {
+        // given
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(true, 10L);
+        ReplicationRoutingDataSource dataSource = new ReplicationRoutingDataSource(tracker);
+        tracker.setCurrentClient("client-1");
+        dataSource.determineCurrentLookupKey();
+
+        // when
+        Thread.sleep(50L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object read = dataSource.determineCurrentLookupKey();
+        tracker.clearCurrentClient();
+
+        // then
+        assertEquals(ReplicationRoutingDataSource.REPLICA, read);
+    }
+}
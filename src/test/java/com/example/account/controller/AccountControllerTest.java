@@ -1,10 +1,13 @@
 package com.example.account.controller;
 
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.BulkCreateAccount;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.service.AccountService;
 import com.example.account.service.LockService;
+import com.example.account.type.ErrorCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +20,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
@@ -33,6 +37,9 @@ class AccountControllerTest {
     @MockBean
     private LockService lockService;
 
+    @MockBean
+    private AccountMetrics accountMetrics;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -62,6 +69,35 @@ class AccountControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void successCreateAccounts() throws Exception {
+        // given
+        given(accountService.createAccounts(anyList()))
+                .willReturn(List.of(
+                        BulkCreateAccount.Item.builder()
+                                .index(0)
+                                .userId(1L)
+                                .accountNumber("1234567890")
+                                .registeredAt(LocalDateTime.now())
+                                .build(),
+                        BulkCreateAccount.Item.failure(1, 99L, ErrorCode.USER_NOT_FOUND)));
+        // when
+        // then
+        mockMvc.perform(post("/account/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(
+                        new BulkCreateAccount.Request(List.of(
+                                new CreateAccount.Request(1L, 100L),
+                                new CreateAccount.Request(99L, 100L)))
+                )))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.results[1].errorCode").value("USER_NOT_FOUND"))
+                .andDo(print());
+    }
+
     @Test
     void successDeleteAccount() throws Exception {
         // given
@@ -1,13 +1,21 @@
 package com.example.account.controller;
 
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AuthorizeBalance;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.CaptureBalance;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.TransactionDto;
 import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.service.TransactionService;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -22,6 +30,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -33,6 +44,9 @@ class TransactionControllerTest {
     @MockBean
     TransactionService transactionService;
 
+    @MockBean
+    AccountMetrics accountMetrics;
+
     @Autowired
     MockMvc mockMvc;
 
@@ -42,7 +56,7 @@ class TransactionControllerTest {
     @Test
     void successUseBalance() throws Exception {
         // given
-        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+        given(transactionService.useBalance(anyString(), anyLong()))
                 .willReturn(TransactionDto.builder()
                         .accountNumber("1000000000")
                         .transactedAt(LocalDateTime.now())
@@ -65,10 +79,69 @@ class TransactionControllerTest {
 
     }
 
+    @Test
+    @DisplayName("검증 실패 - 잔액 변경 없이 실패 거래만 남긴다")
+    void failUseBalanceBeforeLock() throws Exception {
+        // given
+        willThrow(new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH))
+                .given(transactionService).validateUseBalance(anyLong(), anyString(), anyLong());
+        // when
+        // then
+        mockMvc.perform(post("/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UseBalance.Request(1L, "2000000000", 3000L)
+                )))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("USER_ACCOUNT_UN_MATCH"));
+
+        verify(transactionService, never()).useBalance(anyString(), anyLong());
+        verify(transactionService).saveFailedUseTransaction("2000000000", 3000L);
+    }
+
+    @Test
+    @DisplayName("Bloom filter 에 없는 계좌 - 실패 거래를 남기지 않고 거절한다")
+    void rejectUnknownAccountWithoutFailureRecord() throws Exception {
+        // given
+        willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND))
+                .given(transactionService).rejectUnknownAccount(anyString());
+        // when
+        // then
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "2000000000", 3000L)
+                        )))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_NOT_FOUND"));
+
+        verify(transactionService, never()).validateUseBalance(anyLong(), anyString(), anyLong());
+        verify(transactionService, never()).saveFailedUseTransaction(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Bloom filter 에 없는 거래 ID - 실패 거래를 남기지 않고 거절한다")
+    void rejectUnknownTransactionWithoutFailureRecord() throws Exception {
+        // given
+        willThrow(new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
+                .given(transactionService).rejectUnknownTransaction(anyString());
+        // when
+        // then
+        mockMvc.perform(post("/transaction/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CancelBalance.Request("abcdefaasdf", "2000000000", 3000L)
+                        )))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("TRANSACTION_NOT_FOUND"));
+
+        verify(transactionService, never()).saveFailedCancelTransaction(anyString(), anyLong());
+    }
+
     @Test
     void successCancelBalance() throws Exception {
         // given
-        given(transactionService.cancelBalance(anyString(), anyString(), anyLong()))
+        given(transactionService.cancelBalance(anyString(), anyLong()))
                 .willReturn(TransactionDto.builder()
                         .accountNumber("1000000000")
                         .transactedAt(LocalDateTime.now())
@@ -90,6 +163,53 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value("54321"));
 
     }
+    @Test
+    void successAuthorizeBalance() throws Exception {
+        // given
+        given(transactionService.authorizeBalance(anyString(), anyLong()))
+                .willReturn(HoldDto.builder()
+                        .accountNumber("1000000000")
+                        .holdId("holdId")
+                        .amount(3000L)
+                        .status(HoldStatus.HELD)
+                        .expiresAt(LocalDateTime.now().plusDays(7))
+                        .build());
+        // when
+        // then
+        mockMvc.perform(post("/transaction/authorize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AuthorizeBalance.Request(1L, "1000000000", 3000L)
+                        )))
+                .andDo(print())
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.holdId").value("holdId"))
+                .andExpect(jsonPath("$.status").value("HELD"))
+                .andExpect(jsonPath("$.amount").value("3000"));
+
+        verify(transactionService).validateUseBalance(1L, "1000000000", 3000L);
+    }
+
+    @Test
+    @DisplayName("매입 실패 - 사용 실패가 아닌 매입 실패 거래를 남긴다")
+    void failCaptureBalance() throws Exception {
+        // given
+        willThrow(new AccountException(ErrorCode.HOLD_EXPIRED))
+                .given(transactionService).validateCaptureBalance(anyString(), anyString(), anyLong());
+        // when
+        // then
+        mockMvc.perform(post("/transaction/capture")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CaptureBalance.Request("holdId", "1000000000", 3000L)
+                        )))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("HOLD_EXPIRED"));
+
+        verify(transactionService).saveFailedHoldTransaction(TransactionType.CAPTURE, "1000000000", 3000L);
+        verify(transactionService, never()).saveFailedUseTransaction(anyString(), anyLong());
+    }
+
     @Test
     void successQueryTransaction() throws Exception {
         // given
@@ -0,0 +1,49 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountOwnershipCacheTest {
+    private final AccountOwnershipCache accountOwnershipCache = new AccountOwnershipCache(100, 30, new SimpleMeterRegistry());
+
+    @Test
+    void ownerAfterPut() {
+        // given
+        accountOwnershipCache.put(1L, "1000000000");
+
+        // when
+        // then
+        assertTrue(accountOwnershipCache.isOwner(1L, "1000000000"));
+        assertFalse(accountOwnershipCache.isOwner(1L, "1000000001"));
+        assertFalse(accountOwnershipCache.isOwner(2L, "1000000000"));
+    }
+
+    @Test
+    void evictAccount() {
+        // given
+        accountOwnershipCache.put(1L, "1000000000");
+        accountOwnershipCache.put(1L, "1000000001");
+
+        // when
+        accountOwnershipCache.evict(1L, "1000000000");
+
+        // then
+        assertFalse(accountOwnershipCache.isOwner(1L, "1000000000"));
+        assertTrue(accountOwnershipCache.isOwner(1L, "1000000001"));
+    }
+
+    @Test
+    void evictUser() {
+        // given
+        accountOwnershipCache.put(1L, "1000000000");
+
+        // when
+        accountOwnershipCache.evictUser(1L);
+
+        // then
+        assertFalse(accountOwnershipCache.isOwner(1L, "1000000000"));
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.account.service;
 
+import com.example.account.config.ShardingProperties;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.BulkCreateAccount;
+import com.example.account.dto.CreateAccount;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.type.AccountStatus;
@@ -14,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
@@ -33,6 +37,18 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountOwnershipCache accountOwnershipCache;
+
+    @Mock
+    private BloomFilterService bloomFilterService;
+
+    @Mock
+    private RedisBalanceCache redisBalanceCache;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+
     @InjectMocks
     private AccountService accountService;
 
@@ -101,6 +117,61 @@ class AccountServiceTest {
         assertEquals("1000000000", captor.getValue().getAccountNumber());
     }
 
+    @Test
+    @DisplayName("일괄 생성 - 연속된 계좌 번호와 항목별 결과")
+    void createAccounts() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("정민")
+                .build();
+        AccountUser fullUser = AccountUser.builder()
+                .id(13L)
+                .name("민정")
+                .build();
+
+        given(accountUserRepository.findAllById(anyCollection()))
+                .willReturn(List.of(user, fullUser));
+        given(accountRepository.countAccountsByAccountUserIds(anyCollection()))
+                .willReturn(List.of(accountCount(12L, 8L), accountCount(13L, 10L)));
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000010")
+                        .build()));
+        given(accountRepository.saveAll(anyList()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        List<BulkCreateAccount.Item> results = accountService.createAccounts(List.of(
+                new CreateAccount.Request(12L, 100L),
+                new CreateAccount.Request(99L, 100L),
+                new CreateAccount.Request(13L, 100L),
+                new CreateAccount.Request(12L, 200L),
+                new CreateAccount.Request(12L, 300L)));
+
+        // then
+        assertEquals(5, results.size());
+        assertEquals("1000000011", results.get(0).getAccountNumber());
+        assertEquals(ErrorCode.USER_NOT_FOUND, results.get(1).getErrorCode());
+        assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10, results.get(2).getErrorCode());
+        assertEquals("1000000012", results.get(3).getAccountNumber());
+        assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10, results.get(4).getErrorCode());
+    }
+
+    private AccountRepository.AccountCountPerUser accountCount(Long userId, Long accountCount) {
+        return new AccountRepository.AccountCountPerUser() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getAccountCount() {
+                return accountCount;
+            }
+        };
+    }
+
     @Test
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccountUserNotFound() {
@@ -169,6 +240,7 @@ class AccountServiceTest {
         assertEquals(12L, account.getUserId());
         assertEquals("1000000000", account.getAccountNumber());
         assertEquals(AccountStatus.UNREGISTERED, captor.getValue().getAccountStatus());
+        verify(accountOwnershipCache, times(1)).evict(12L, "1000000000");
     }
 
     @Test
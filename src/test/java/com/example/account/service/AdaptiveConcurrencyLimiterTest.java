@@ -0,0 +1,91 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    @DisplayName("한도를 넘는 요청은 바로 거절")
+    void shedAboveLimit() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 250, 0.5);
+
+        // when
+        // then
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("바쁠 때 빠르게 끝나면 한도를 늘린다")
+    void increaseOnFastCompletion() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 250, 0.5);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // when
+        limiter.release(FAST, false);
+
+        // then
+        assertEquals(3, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("느리거나 의존성 실패면 한도를 줄이되 최소값 아래로는 내리지 않는다")
+    void decreaseOnSlowOrDropped() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 3, 10, 250, 0.5);
+
+        // when
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        int afterSlow = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+
+        // then
+        assertEquals(4, afterSlow);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("한가할 때는 한도를 늘리지 않는다")
+    void keepLimitWhenIdle() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 250, 0.5);
+
+        // when
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        // then
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("제외한 요청은 자리만 돌려주고 한도는 그대로 둔다")
+    void ignoreKeepsLimit() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 250, 0.5);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // when
+        limiter.ignore();
+
+        // then
+        assertEquals(2, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.BalanceHold;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.type.HoldStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceHoldSweeperTest {
+    @Mock
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    @Mock
+    private RedisBalanceCache redisBalanceCache;
+
+    private BalanceHoldSweeper balanceHoldSweeper;
+
+    @BeforeEach
+    void setUp() {
+        balanceHoldSweeper = new BalanceHoldSweeper(balanceHoldRepository, accountRepository,
+                new ShardRouter(new ShardingProperties()), transactionTemplate, redisBalanceCache,
+                new SimpleMeterRegistry(), 10);
+        given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0)
+                        .doInTransaction(transactionStatus));
+    }
+
+    @Test
+    @DisplayName("만료된 승인을 한 번에 닫고 계좌마다 합계를 한 번만 푼다")
+    void expireHoldsPerAccount() {
+        // given
+        List<BalanceHold> holds = Arrays.asList(hold(1L, 1L, 1000L), hold(2L, 1L, 2000L), hold(3L, 2L, 500L));
+        given(balanceHoldRepository.findByStatusAndExpiresAtBefore(eq(HoldStatus.HELD), any(), any()))
+                .willReturn(holds);
+        given(balanceHoldRepository.expireAll(anyCollection(), any()))
+                .willReturn(3);
+
+        // when
+        int expired = balanceHoldSweeper.sweepBatch();
+
+        // then
+        assertEquals(3, expired);
+        verify(accountRepository, times(1)).addHeldBalance(1L, -3000L);
+        verify(accountRepository, times(1)).addHeldBalance(2L, -500L);
+        verify(redisBalanceCache).applyChange(
+                argThat(account -> account.getAccountNumber().equals("1000000001")), eq(0L), eq(-3000L));
+        verify(redisBalanceCache).applyChange(
+                argThat(account -> account.getAccountNumber().equals("1000000002")), eq(0L), eq(-500L));
+    }
+
+    @Test
+    @DisplayName("다른 sweeper 가 먼저 닫은 승인이 있으면 batch 를 되돌린다")
+    void rollbackWhenClosedConcurrently() {
+        // given
+        given(balanceHoldRepository.findByStatusAndExpiresAtBefore(eq(HoldStatus.HELD), any(), any()))
+                .willReturn(Arrays.asList(hold(1L, 1L, 1000L), hold(2L, 1L, 2000L)));
+        given(balanceHoldRepository.expireAll(anyCollection(), any()))
+                .willReturn(1);
+
+        // when
+        int expired = balanceHoldSweeper.sweepBatch();
+
+        // then
+        assertEquals(0, expired);
+        verify(transactionStatus).setRollbackOnly();
+        verify(accountRepository, never()).addHeldBalance(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("만료된 승인이 없으면 아무것도 바꾸지 않는다")
+    void nothingToExpire() {
+        // given
+        given(balanceHoldRepository.findByStatusAndExpiresAtBefore(eq(HoldStatus.HELD), any(), any()))
+                .willReturn(Collections.emptyList());
+
+        // when
+        int expired = balanceHoldSweeper.sweepBatch();
+
+        // then
+        assertEquals(0, expired);
+        verify(balanceHoldRepository, never()).expireAll(anyCollection(), any());
+    }
+
+    private static BalanceHold hold(Long id, Long accountId, Long amount) {
+        return BalanceHold.builder()
+                .id(id)
+                .account(Account.builder().id(accountId).accountNumber("100000000" + accountId).build())
+                .amount(amount)
+                .status(HoldStatus.HELD)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.redisson.api.RedissonClient;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class BloomFilterServiceTest {
+    @Mock
+    private TransactionPartitionManager transactionPartitionManager;
+
+    @Mock
+    private ColdTransactionStore coldTransactionStore;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    private JdbcTemplate jdbcTemplate;
+    private BloomFilterService bloomFilterService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:bloom-filter-service;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS account");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transaction");
+        jdbcTemplate.execute("CREATE TABLE account (account_number VARCHAR(10), created_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE transaction (transaction_id VARCHAR(64), created_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO account VALUES ('1000000000', DATEADD('DAY', -1, CURRENT_TIMESTAMP))");
+        jdbcTemplate.update("INSERT INTO transaction VALUES ('T1', DATEADD('DAY', -1, CURRENT_TIMESTAMP))");
+
+        bloomFilterService = new BloomFilterService(jdbcTemplate, transactionPartitionManager, coldTransactionStore,
+                redissonClient, new ShardRouter(new ShardingProperties()), new SimpleMeterRegistry(),
+                true, false, 1000, 1000, 0.001);
+        given(transactionPartitionManager.getDetachedPartitions()).willReturn(Collections.emptySet());
+    }
+
+    @Test
+    @DisplayName("scan 이 지나간 뒤 commit 된 행도 공개 전에 다시 읽어 넣는다")
+    void replayRowsCreatedDuringRebuild() {
+        // given
+        // 거래 scan 이 끝난 뒤, add 없이 commit 된 행을 흉내 낸다.
+        willAnswer(invocation -> {
+            jdbcTemplate.update("INSERT INTO account VALUES ('1000000001', CURRENT_TIMESTAMP)");
+            jdbcTemplate.update("INSERT INTO transaction VALUES ('T2', CURRENT_TIMESTAMP)");
+            return null;
+        }).given(coldTransactionStore).forEachTransactionId(any());
+
+        // when
+        bloomFilterService.rebuild();
+
+        // then
+        assertTrue(bloomFilterService.mightContainTransaction("T1"));
+        assertTrue(bloomFilterService.mightContainTransaction("T2"));
+        assertTrue(bloomFilterService.mightContainAccount("1000000000"));
+        assertTrue(bloomFilterService.mightContainAccount("1000000001"));
+        assertFalse(bloomFilterService.mightContainTransaction("T3"));
+    }
+}
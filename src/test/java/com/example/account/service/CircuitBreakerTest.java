@@ -0,0 +1,92 @@
+package com.example.account.service;
+
+import com.example.account.type.CircuitState;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(2, 1000L, now::get);
+
+    @Test
+    void openAfterConsecutiveFailures() {
+        // given
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        // when
+        circuitBreaker.onFailure();
+
+        // then
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbe() {
+        // given
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        // when
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // then
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void closeWhenProbeSucceeds() {
+        // given
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        circuitBreaker.allowRequest();
+
+        // when
+        circuitBreaker.onSuccess();
+
+        // then
+        assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void reopenWhenProbeFails() {
+        // given
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        circuitBreaker.allowRequest();
+
+        // when
+        circuitBreaker.onFailure();
+
+        // then
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void probeAgainWhenPermissionReleased() {
+        // given
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        circuitBreaker.allowRequest();
+
+        // when
+        circuitBreaker.releasePermission();
+
+        // then
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 파티션 테이블을 만들면 H2 가 트랜잭션을 commit 하므로 테스트 트랜잭션 없이 실행하고 끝나면 지운다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ColdTransactionArchiverTest {
+    private static final int PARTITION_KEY = 202401;
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private TransactionPartitionManager transactionPartitionManager;
+    private ColdTransactionStore coldTransactionStore;
+    private ColdTransactionArchiver coldTransactionArchiver;
+
+    @BeforeEach
+    void setUp() {
+        ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+        transactionPartitionManager = new TransactionPartitionManager(
+                jdbcTemplate, shardRouter, new TransactionTemplate(transactionManager));
+        coldTransactionStore = new ColdTransactionStore(directory.toString());
+        coldTransactionArchiver = new ColdTransactionArchiver(
+                jdbcTemplate, transactionPartitionManager, shardRouter, coldTransactionStore);
+        ReflectionTestUtils.setField(coldTransactionArchiver, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transaction_p" + PARTITION_KEY);
+    }
+
+    @Test
+    @DisplayName("파티션을 여러 chunk 로 나눠 읽어 열 저장소로 옮기고 테이블을 지운다")
+    void archiveInChunks() throws Exception {
+        // given
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        // 같은 시각의 거래를 섞어 chunk 경계에서 transacted_at 이 같은 행도 빠지지 않는지 본다.
+        LocalDateTime base = LocalDateTime.of(2024, 1, 10, 9, 0);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            transactions.add(transaction(account, base.plusMinutes(i / 2), 1000L + i));
+        }
+        transactionPartitionManager.detach(PARTITION_KEY);
+
+        // when
+        coldTransactionArchiver.archive(PARTITION_KEY);
+
+        // then
+        Set<String> archived = new HashSet<>();
+        coldTransactionStore.forEachTransactionId(archived::add);
+        assertEquals(5, archived.size());
+        for (Transaction expected : transactions) {
+            TransactionDto actual = coldTransactionStore.find(expected.getTransactionId()).get();
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.getTransactedAt(), actual.getTransactedAt());
+        }
+        assertFalse(transactionPartitionManager.getDetachedPartitions().contains(PARTITION_KEY));
+    }
+
+    @Test
+    @DisplayName("이미 열 저장소에 옮긴 파티션은 다시 쓰지 않고 테이블만 지운다")
+    void dropAlreadyArchivedPartition() throws Exception {
+        // given
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        Transaction transaction = transaction(account, LocalDateTime.of(2024, 1, 10, 9, 0), 1000L);
+        transactionPartitionManager.detach(PARTITION_KEY);
+        // 지난 실행이 파일만 쓰고 테이블을 지우기 전에 멈춘 상태
+        coldTransactionStore.write(PARTITION_KEY, List.of(TransactionDto.fromEntity(transaction)));
+
+        // when
+        coldTransactionArchiver.archive(PARTITION_KEY);
+
+        // then
+        assertEquals(1, coldTransactionStore.getRowCount(PARTITION_KEY));
+        assertTrue(coldTransactionStore.find(transaction.getTransactionId()).isPresent());
+        assertFalse(transactionPartitionManager.getDetachedPartitions().contains(PARTITION_KEY));
+    }
+
+    private Transaction transaction(Account account, LocalDateTime transactedAt, Long amount) {
+        return transactionRepository.save(Transaction.builder()
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(amount)
+                .balanceSnapshot(9000L)
+                .transactionId(TransactionIdGenerator.generate(transactedAt))
+                .transactedAt(transactedAt)
+                .partitionKey(TransactionIdGenerator.partitionKeyOf(transactedAt))
+                .build());
+    }
+}
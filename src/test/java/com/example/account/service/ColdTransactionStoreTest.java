@@ -0,0 +1,155 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColdTransactionStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndFind() throws Exception {
+        // given
+        LocalDateTime base = LocalDateTime.of(2021, 5, 1, 0, 0, 0, 123_456_000);
+        List<TransactionDto> transactions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            transactions.add(TransactionDto.builder()
+                    .accountNumber("10000000" + (i % 7 + 10))
+                    .transactionType(i % 3 == 0 ? TransactionType.CANCEL : TransactionType.USE)
+                    .transactionResultType(i % 5 == 0 ? TransactionResultType.F : TransactionResultType.S)
+                    .amount(1000L + i * 37L)
+                    .balanceSnapshot(1_000_000L - i * 500L)
+                    .transactionId(TransactionIdGenerator.generate(base.plusMinutes(i)))
+                    .transactedAt(base.plusMinutes(i))
+                    .build());
+        }
+        ColdTransactionStore store = new ColdTransactionStore(directory.toString());
+
+        // when
+        store.write(202105, transactions);
+
+        // then
+        for (TransactionDto expected : transactions) {
+            TransactionDto actual = store.find(expected.getTransactionId()).get();
+            assertEquals(expected.getAccountNumber(), actual.getAccountNumber());
+            assertEquals(expected.getTransactionType(), actual.getTransactionType());
+            assertEquals(expected.getTransactionResultType(), actual.getTransactionResultType());
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.getBalanceSnapshot(), actual.getBalanceSnapshot());
+            assertEquals(expected.getTransactedAt(), actual.getTransactedAt());
+        }
+        assertEquals(Optional.empty(), store.find(TransactionIdGenerator.generate(base)));
+        assertEquals(Optional.empty(), store.find(TransactionIdGenerator.generate(base.plusYears(1))));
+    }
+
+    @Test
+    @DisplayName("거래 ID 순서와 다른 순서로 써도 거래 ID 로 찾는다")
+    void writeInTransactedAtOrder() throws Exception {
+        // given
+        LocalDateTime base = LocalDateTime.of(2021, 7, 1, 0, 0);
+        List<TransactionDto> transactions = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            // 시각 순서와 거래 ID 순서가 어긋나도록 ID 는 거꾸로 만든다.
+            transactions.add(TransactionDto.builder()
+                    .accountNumber("1000000000")
+                    .transactionType(TransactionType.USE)
+                    .transactionResultType(TransactionResultType.S)
+                    .amount(1000L + i)
+                    .balanceSnapshot(1_000_000L - i * 1000L)
+                    .transactionId(TransactionIdGenerator.generate(base.plusDays(20).minusMinutes(i)))
+                    .transactedAt(base.plusSeconds(i))
+                    .build());
+        }
+        ColdTransactionStore store = new ColdTransactionStore(directory.toString());
+
+        // when
+        store.write(202107, consumer -> transactions.forEach(consumer));
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.collect(Collectors.toList());
+        }
+
+        // then
+        for (TransactionDto expected : transactions) {
+            TransactionDto actual = store.find(expected.getTransactionId()).get();
+            assertEquals(expected.getTransactionId(), actual.getTransactionId());
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.getBalanceSnapshot(), actual.getBalanceSnapshot());
+            assertEquals(expected.getTransactedAt(), actual.getTransactedAt());
+        }
+        // 열마다 쓴 임시 파일은 남지 않는다.
+        assertEquals(List.of(directory.resolve("transactions-202107.col")), files);
+    }
+
+    @Test
+    @DisplayName("이미 파일이 있는 월은 덮어쓰지 않는다")
+    void refuseToOverwrite() throws Exception {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2021, 8, 3, 12, 30);
+        TransactionDto first = TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(TransactionIdGenerator.generate(transactedAt))
+                .transactedAt(transactedAt)
+                .build();
+        ColdTransactionStore store = new ColdTransactionStore(directory.toString());
+        store.write(202108, List.of(first));
+
+        // when
+        // then
+        assertThrows(FileAlreadyExistsException.class, () -> store.write(202108, List.of()));
+        assertThrows(FileAlreadyExistsException.class,
+                () -> new ColdTransactionStore(directory.toString()).write(202108, List.of()));
+        assertEquals(1, store.getRowCount(202108));
+        assertEquals(9000L, store.find(first.getTransactionId()).get().getBalanceSnapshot());
+    }
+
+    @Test
+    void reopen() throws Exception {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2021, 6, 3, 12, 30);
+        String transactionId = TransactionIdGenerator.generate(transactedAt);
+        new ColdTransactionStore(directory.toString()).write(202106, List.of(TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build()));
+
+        // when
+        ColdTransactionStore store = new ColdTransactionStore(directory.toString());
+        store.open();
+        Set<String> ids = new HashSet<>();
+        store.forEachTransactionId(ids::add);
+
+        // then
+        assertTrue(store.contains(202106));
+        assertEquals(Set.of(transactionId), ids);
+        assertEquals(9000L, store.find(transactionId).get().getBalanceSnapshot());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLockContext;
+import com.example.account.aop.ConcurrencyLimited;
+import com.example.account.controller.TransactionController;
+import com.example.account.dto.UseBalance;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitAspectTest {
+
+    @Mock
+    private ConcurrencyLimitService concurrencyLimitService;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @InjectMocks
+    private ConcurrencyLimitAspect concurrencyLimitAspect;
+
+    @Test
+    @DisplayName("계좌 lock 대기 시간은 지연 시간에서 빼고 한도를 조정한다")
+    void excludeLockWaitFromLatency() throws Throwable {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 250, 0.5);
+        given(concurrencyLimitService.isEnabled()).willReturn(true);
+        given(concurrencyLimitService.limiter("transaction")).willReturn(limiter);
+        given(proceedingJoinPoint.proceed()).willAnswer(invocation -> {
+            // 지연 기준(250ms)보다 오래 lock 을 기다린 것으로 둔다.
+            long start = System.nanoTime();
+            Thread.sleep(300);
+            AccountLockContext.addLockWait(System.nanoTime() - start);
+            return "result";
+        });
+
+        // when
+        Object result = concurrencyLimitAspect.aroundMethod(proceedingJoinPoint, transactionLimit());
+
+        // then
+        assertEquals("result", result);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private ConcurrencyLimited transactionLimit() throws NoSuchMethodException {
+        return TransactionController.class
+                .getMethod("useBalance", UseBalance.Request.class)
+                .getAnnotation(ConcurrencyLimited.class);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.DailySummaryDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.DailyAccountSummaryRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DailySummaryServiceTest {
+    @Mock
+    private DailyAccountSummaryRepository dailyAccountSummaryRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountUserRepository accountUserRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+
+    @InjectMocks
+    private DailySummaryService dailySummaryService;
+
+    @Test
+    @DisplayName("그날 집계 행이 있으면 상대값으로 더한다")
+    void recordIncrementsExistingRow() {
+        // given
+        given(jdbcTemplate.update(startsWith("UPDATE"), (Object) any()))
+                .willReturn(1);
+
+        // when
+        dailySummaryService.record(transaction(TransactionType.CANCEL, TransactionResultType.S, 1000L));
+
+        // then
+        verify(jdbcTemplate, times(1)).update(startsWith("UPDATE"),
+                eq(0L), eq(0L), eq(1L), eq(1000L), eq(0L), eq(0L), any(),
+                eq(1L), eq(LocalDate.of(2026, 10, 19)));
+        verify(jdbcTemplate, never()).update(startsWith("INSERT"), (Object) any());
+    }
+
+    @Test
+    @DisplayName("그날 첫 거래면 집계 행을 새로 만든다")
+    void recordFirstTransactionOfDay() {
+        // given
+        given(jdbcTemplate.update(startsWith("UPDATE"), (Object) any()))
+                .willReturn(0);
+
+        // when
+        dailySummaryService.record(transaction(TransactionType.USE, TransactionResultType.S, 1000L));
+
+        // then
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT"),
+                eq(1L), eq(12L), eq(LocalDate.of(2026, 10, 19)),
+                eq(1L), eq(1000L), eq(0L), eq(0L), eq(0L), eq(0L), any(), any());
+    }
+
+    @Test
+    @DisplayName("첫 행을 다른 트랜잭션이 먼저 만들었으면 다시 UPDATE 한다")
+    void recordRetriesAsUpdateOnDuplicateKey() {
+        // given
+        given(jdbcTemplate.update(startsWith("UPDATE"), (Object) any()))
+                .willReturn(0, 1);
+        given(jdbcTemplate.update(startsWith("INSERT"), (Object) any()))
+                .willThrow(new DuplicateKeyException("uk_daily_account_summary_account_date"));
+
+        // when
+        dailySummaryService.record(transaction(TransactionType.USE, TransactionResultType.F, 500L));
+
+        // then
+        verify(jdbcTemplate, times(2)).update(startsWith("UPDATE"),
+                eq(0L), eq(0L), eq(0L), eq(0L), eq(1L), eq(500L), any(),
+                eq(1L), eq(LocalDate.of(2026, 10, 19)));
+    }
+
+    @Test
+    void getUserSummaries() {
+        // given
+        LocalDate date = LocalDate.of(2026, 10, 19);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(AccountUser.builder()
+                        .id(12L)
+                        .name("정민")
+                        .build()));
+        given(dailyAccountSummaryRepository.sumByUserAndDate(anyLong(), any(), any()))
+                .willReturn(List.of(new DailySummaryDto(date, 3L, 5000L, 1L, 1000L, 0L, 0L)));
+
+        // when
+        List<DailySummaryDto> summaries = dailySummaryService.getUserSummaries(12L, date, date);
+
+        // then
+        assertEquals(1, summaries.size());
+        assertEquals(5000L, summaries.get(0).getUseAmount());
+    }
+
+    @Test
+    @DisplayName("조회 기간이 뒤집혀 있으면 실패")
+    void getAccountSummariesInvalidRange() {
+        // given
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> dailySummaryService.getAccountSummaries("1000000000",
+                        LocalDate.of(2026, 10, 19), LocalDate.of(2026, 10, 1)));
+
+        // then
+        assertEquals(ErrorCode.INVALID_DATE_RANGE, exception.getErrorCode());
+    }
+
+    private Transaction transaction(TransactionType transactionType, TransactionResultType resultType, Long amount) {
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("정민")
+                .build();
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(user)
+                .accountNumber("1000000000")
+                .build();
+        return Transaction.builder()
+                .account(account)
+                .transactionType(transactionType)
+                .transactionResultType(resultType)
+                .amount(amount)
+                .transactedAt(LocalDateTime.of(2026, 10, 19, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.ReconciliationReport;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.ReconciliationCheckpointRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.MismatchType;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 대사는 여러 worker 스레드가 각자 connection 으로 읽으므로 fixture 를 commit 해야 보인다.
+ * 테스트 트랜잭션 없이 저장하고 끝나면 지운다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerReconciliationServiceTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ReconciliationCheckpointRepository checkpointRepository;
+
+    private LedgerReconciliationService ledgerReconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerReconciliationService = new LedgerReconciliationService(
+                jdbcTemplate, checkpointRepository, transactionManager,
+                new ShardRouter(new ShardingProperties()), 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void consistentLedger() {
+        // given
+        Account account = account("1000000000", 10000L);
+        transaction(account, TransactionType.USE, TransactionResultType.S, 1000L, 9000L);
+        transaction(account, TransactionType.USE, TransactionResultType.F, 20000L, 9000L);
+        transaction(account, TransactionType.CANCEL, TransactionResultType.S, 1000L, 10000L);
+
+        // when
+        ReconciliationReport report = ledgerReconciliationService.reconcile(false);
+
+        // then
+        assertEquals(1L, report.getCheckedAccounts());
+        assertEquals(3L, report.getCheckedTransactions());
+        assertEquals(0L, report.getMismatchCount());
+    }
+
+    @Test
+    void detectMismatches() {
+        // given
+        Account account = account("1000000001", 5000L);
+        transaction(account, TransactionType.USE, TransactionResultType.S, 1000L, 9000L);
+        transaction(account, TransactionType.USE, TransactionResultType.S, 1000L, 7000L);
+
+        // when
+        ReconciliationReport report = ledgerReconciliationService.reconcile(false);
+
+        // then
+        assertEquals(2L, report.getMismatchCount());
+        assertTrue(report.getMismatches().stream()
+                .anyMatch(mismatch -> mismatch.getMismatchType() == MismatchType.SNAPSHOT_CHAIN_BROKEN
+                        && mismatch.getExpected() == 8000L));
+        assertTrue(report.getMismatches().stream()
+                .anyMatch(mismatch -> mismatch.getMismatchType() == MismatchType.BALANCE_MISMATCH
+                        && mismatch.getExpected() == 7000L && mismatch.getActual() == 5000L));
+    }
+
+    // data.sql 의 사용자를 쓴다. 새로 저장하면 sequence 가 data.sql 의 id 와 겹친다.
+    private Account account(String accountNumber, Long balance) {
+        return accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber(accountNumber)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(balance)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void transaction(Account account, TransactionType transactionType,
+                             TransactionResultType resultType, Long amount, Long balanceSnapshot) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionRepository.save(Transaction.builder()
+                .account(account)
+                .transactionType(transactionType)
+                .transactionResultType(resultType)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(TransactionIdGenerator.generate(now))
+                .transactedAt(now)
+                .partitionKey(TransactionIdGenerator.partitionKeyOf(now))
+                .build());
+    }
+}
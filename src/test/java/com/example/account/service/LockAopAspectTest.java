@@ -1,17 +1,21 @@
 package com.example.account.service;
 
-import com.example.account.dto.UseBalance;
+import com.example.account.aop.AccountLock;
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
 import org.aspectj.lang.ProceedingJoinPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -25,20 +29,23 @@ class LockAopAspectTest {
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
-    @InjectMocks
     private LockAopAspect lockAopAspect;
 
+    @BeforeEach
+    void setUp() {
+        lockAopAspect = new LockAopAspect(lockService, new SimpleMeterRegistry());
+    }
+
     @Test
     void lockAndUnLock() throws Throwable{
         // given
         ArgumentCaptor<String> lockArgumentCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> unLockArgumentCaptor = ArgumentCaptor.forClass(String.class);
-        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
         // when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, useBalanceLock(), "1234");
         // then
-        verify(lockService, times(1)).lock(lockArgumentCaptor.capture());
-        verify(lockService, times(1)).unLock(unLockArgumentCaptor.capture());
+        verify(lockService, times(1)).lock(lockArgumentCaptor.capture(), eq(LockMode.STANDARD));
+        verify(lockService, times(1)).unLock(unLockArgumentCaptor.capture(), eq(LockMode.STANDARD));
 
         assertEquals("1234", lockArgumentCaptor.getValue());
         assertEquals("1234", unLockArgumentCaptor.getValue());
@@ -48,18 +55,36 @@ class LockAopAspectTest {
         // given
         ArgumentCaptor<String> lockArgumentCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> unLockArgumentCaptor = ArgumentCaptor.forClass(String.class);
-        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
-
         given(proceedingJoinPoint.proceed())
                 .willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
 
         // when
-        assertThrows(AccountException.class, () -> lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+        assertThrows(AccountException.class, () -> lockAopAspect.aroundMethod(proceedingJoinPoint, useBalanceLock(), "1234"));
         // then
-        verify(lockService, times(1)).lock(lockArgumentCaptor.capture());
-        verify(lockService, times(1)).unLock(unLockArgumentCaptor.capture());
+        verify(lockService, times(1)).lock(lockArgumentCaptor.capture(), eq(LockMode.STANDARD));
+        verify(lockService, times(1)).unLock(unLockArgumentCaptor.capture(), eq(LockMode.STANDARD));
 
         assertEquals("1234", lockArgumentCaptor.getValue());
         assertEquals("1234", unLockArgumentCaptor.getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("검증을 마친 service 메소드는 첫 번째 인자의 계좌로 lock")
+    void lockAccountArgument() throws Throwable {
+        // given
+        given(proceedingJoinPoint.proceed())
+                .willReturn("result");
+        // when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, useBalanceLock(), "1234");
+        // then
+        assertEquals("result", result);
+        verify(lockService, times(1)).lock("1234", LockMode.STANDARD);
+        verify(lockService, times(1)).unLock("1234", LockMode.STANDARD);
+    }
+
+    private AccountLock useBalanceLock() throws NoSuchMethodException {
+        return TransactionService.class
+                .getMethod("useBalance", String.class, Long.class)
+                .getAnnotation(AccountLock.class);
+    }
+}
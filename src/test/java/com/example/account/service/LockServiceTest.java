@@ -1,19 +1,38 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLockContext;
+import com.example.account.config.LockProperties;
 import com.example.account.exception.AccountException;
+import com.example.account.type.CircuitState;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.redisson.client.RedisClient;
+import org.redisson.client.RedisTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -24,6 +43,12 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
 
+    @Spy
+    private LockProperties lockProperties = new LockProperties();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private LockService lockService;
 
@@ -53,4 +78,128 @@ class LockServiceTest {
         // then
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void fallbackToDatabaseLockWhenRedisFails() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new RedisTimeoutException("timeout"));
+
+        // when
+        assertDoesNotThrow(() -> lockService.lock("123"));
+        boolean databaseLock = AccountLockContext.isDatabaseLock();
+        lockService.unLock("123");
+
+        // then
+        assertTrue(databaseLock);
+        assertFalse(AccountLockContext.isDatabaseLock());
+        verify(rLock, never()).unlock();
+    }
+
+    @Test
+    void skipRedisWhileCircuitIsOpen() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new RedisTimeoutException("timeout"));
+        for (int i = 0; i < 3; i++) {
+            lockService.lock("123");
+            lockService.unLock("123");
+        }
+
+        // when
+        lockService.lock("123");
+        boolean databaseLock = AccountLockContext.isDatabaseLock();
+        lockService.unLock("123");
+
+        // then
+        assertEquals(CircuitState.OPEN, lockService.getCircuitState());
+        assertTrue(databaseLock);
+        verify(rLock, times(3)).tryLock(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void useFairLockForHotAccount() throws Exception {
+        // given
+        lockProperties.getFairAccounts().add("123");
+        given(redissonClient.getFairLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+
+        // when
+        lockService.lock("123", LockMode.STANDARD);
+        lockService.unLock("123", LockMode.STANDARD);
+
+        // then
+        verify(redissonClient, times(2)).getFairLock("ACLK:123");
+        verify(redissonClient, never()).getLock(anyString());
+        verify(rLock, times(1)).unlock();
+    }
+
+    @Test
+    void rejectWhenLockQueueIsFull() throws Exception {
+        // given
+        lockProperties.setMaxWaiters(1);
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willAnswer(invocation -> {
+                    waiting.countDown();
+                    release.await();
+                    return true;
+                });
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> first = executorService.submit(() -> lockService.lock("123"));
+            waiting.await();
+
+            // when
+            AccountException exception = assertThrows(AccountException.class,
+                    () -> lockService.lock("123"));
+            release.countDown();
+            first.get();
+
+            // then
+            assertEquals(ErrorCode.ACCOUNT_LOCK_QUEUE_FULL, exception.getErrorCode());
+            // 앞의 요청이 대기열에서 빠지면 다시 기다릴 수 있다.
+            assertDoesNotThrow(() -> lockService.lock("123"));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("시험 요청이 인터럽트되어도 다음 요청이 Redis 를 다시 시험한다")
+    void probeAgainAfterInterruptedProbe() throws Exception {
+        // given
+        AtomicLong now = new AtomicLong();
+        LockService lockService = new LockService(redissonClient, lockProperties, meterRegistry);
+        ReflectionTestUtils.setField(lockService, "circuitBreaker", new CircuitBreaker(1, 1000L, now::get));
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new RedisTimeoutException("timeout"))
+                .willThrow(new InterruptedException())
+                .willReturn(true);
+        lockService.lock("123");
+        lockService.unLock("123");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () -> lockService.lock("123"));
+        Thread.interrupted();
+        lockService.lock("123");
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertEquals(CircuitState.CLOSED, lockService.getCircuitState());
+        verify(rLock, times(3)).tryLock(anyLong(), anyLong(), any());
+    }
+}
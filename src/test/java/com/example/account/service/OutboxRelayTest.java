@@ -0,0 +1,105 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.OutboxEvent;
+import com.example.account.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxSink outboxSink;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, outboxSink, redissonClient,
+                new ShardRouter(new ShardingProperties()), new SimpleMeterRegistry(), 10, 24);
+    }
+
+    @Test
+    @DisplayName("sink 에 보낸 뒤 발행 완료로 표시")
+    void publishThenMarkPublished() throws Exception {
+        // given
+        List<OutboxEvent> events = Arrays.asList(event(1L, "1000000000"), event(2L, "1000000000"));
+        given(outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(any()))
+                .willReturn(events);
+
+        // when
+        int relayed = outboxRelay.relayBatch();
+
+        // then
+        assertEquals(2, relayed);
+        verify(outboxSink).publish(events);
+        verify(outboxEventRepository).markPublished(any(), any());
+    }
+
+    @Test
+    @DisplayName("sink 가 실패하면 발행 완료로 표시하지 않아 다음 주기에 다시 보냄")
+    void keepEventsWhenSinkFails() throws Exception {
+        // given
+        List<OutboxEvent> events = Collections.singletonList(event(1L, "1000000000"));
+        given(outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(any()))
+                .willReturn(events);
+        willThrow(new IOException("disk full")).given(outboxSink).publish(events);
+
+        // when
+        int relayed = outboxRelay.relayBatch();
+
+        // then
+        assertEquals(0, relayed);
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    @DisplayName("보낼 이벤트가 없으면 sink 를 호출하지 않음")
+    void nothingToPublish() throws Exception {
+        // given
+        given(outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(any()))
+                .willReturn(Collections.emptyList());
+
+        // when
+        int relayed = outboxRelay.relayBatch();
+
+        // then
+        assertEquals(0, relayed);
+        verify(outboxSink, never()).publish(any());
+    }
+
+    private OutboxEvent event(Long id, String accountNumber) {
+        return OutboxEvent.builder()
+                .id(id)
+                .eventType(OutboxService.TRANSACTION_RECORDED)
+                .aggregateKey(accountNumber)
+                .payload("{}")
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.account.service;
+
+import com.example.account.config.RateLimitProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateLimiterConfig;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+    @Mock
+    private ObjectProvider<RedissonClient> redissonClient;
+
+    @Mock
+    private RedissonClient client;
+
+    @Mock
+    private RRateLimiter limiter;
+
+    private final AtomicLong now = new AtomicLong();
+    private RateLimitProperties properties;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Endpoint use = new RateLimitProperties.Endpoint();
+        use.getAccount().setCapacity(2);
+        use.getAccount().setRefillPerSecond(1);
+        use.getUser().setCapacity(3);
+        use.getUser().setRefillPerSecond(1);
+
+        properties = new RateLimitProperties();
+        properties.getEndpoints().put("use", use);
+        rateLimitService = new RateLimitService(properties, redissonClient, now::get);
+    }
+
+    @Test
+    @DisplayName("계좌 bucket 이 비면 거절")
+    void rejectWhenAccountBucketIsEmpty() {
+        // given
+        rateLimitService.check("use", 1L, "1000000000");
+        rateLimitService.check("use", 1L, "1000000000");
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> rateLimitService.check("use", 1L, "1000000000"));
+
+        // then
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("시간이 지나면 token 이 다시 채워진다")
+    void refillAfterTime() {
+        // given
+        rateLimitService.check("use", 1L, "1000000000");
+        rateLimitService.check("use", 1L, "1000000000");
+
+        // when
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // then
+        assertDoesNotThrow(() -> rateLimitService.check("use", 1L, "1000000000"));
+    }
+
+    @Test
+    @DisplayName("같은 사용자의 여러 계좌 요청은 사용자 bucket 으로 제한")
+    void rejectWhenUserBucketIsEmpty() {
+        // given
+        rateLimitService.check("use", 1L, "1000000000");
+        rateLimitService.check("use", 1L, "1000000001");
+        rateLimitService.check("use", 1L, "1000000002");
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> rateLimitService.check("use", 1L, "1000000003"));
+
+        // then
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+        assertDoesNotThrow(() -> rateLimitService.check("use", 2L, "1000000004"));
+    }
+
+    @Test
+    @DisplayName("설정이 없는 endpoint 는 제한하지 않는다")
+    void unconfiguredEndpointIsUnlimited() {
+        // given
+        // when
+        // then
+        for (int i = 0; i < 10; i++) {
+            assertDoesNotThrow(() -> rateLimitService.check("cancel", null, "1000000000"));
+        }
+    }
+
+    @Test
+    @DisplayName("전역 limiter 는 capacity 를 채우는 시간 동안 capacity 만큼 허용하고 TTL 을 둔다")
+    void sizeGlobalLimiterFromCapacity() {
+        // given
+        properties.setRedisEnabled(true);
+        given(redissonClient.getObject()).willReturn(client);
+        given(client.getRateLimiter("ACRL:use:account:1000000000")).willReturn(limiter);
+        given(limiter.trySetRate(RateType.OVERALL, 2, 2000, RateIntervalUnit.MILLISECONDS)).willReturn(true);
+        given(limiter.tryAcquire()).willReturn(true);
+
+        // when
+        rateLimitService.check("use", null, "1000000000");
+        rateLimitService.check("use", null, "1000000000");
+
+        // then
+        verify(limiter, times(1)).trySetRate(RateType.OVERALL, 2, 2000, RateIntervalUnit.MILLISECONDS);
+        verify(limiter, times(2)).expireAsync(Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("설정이 바뀌면 이미 있는 전역 limiter 의 rate 를 바꾼다")
+    void applyChangedRateToGlobalLimiter() {
+        // given
+        properties.setRedisEnabled(true);
+        given(redissonClient.getObject()).willReturn(client);
+        given(client.getRateLimiter("ACRL:use:account:1000000000")).willReturn(limiter);
+        given(limiter.trySetRate(RateType.OVERALL, 2, 2000, RateIntervalUnit.MILLISECONDS)).willReturn(true);
+        given(limiter.trySetRate(RateType.OVERALL, 4, 2000, RateIntervalUnit.MILLISECONDS)).willReturn(false);
+        given(limiter.getConfig()).willReturn(new RateLimiterConfig(RateType.OVERALL, 2000L, 2L));
+        given(limiter.tryAcquire()).willReturn(true);
+        rateLimitService.check("use", null, "1000000000");
+
+        // when
+        properties.getEndpoints().get("use").getAccount().setCapacity(4);
+        properties.getEndpoints().get("use").getAccount().setRefillPerSecond(2);
+        rateLimitService.check("use", null, "1000000000");
+
+        // then
+        verify(limiter, times(1)).setRate(RateType.OVERALL, 4, 2000, RateIntervalUnit.MILLISECONDS);
+    }
+
+    @Test
+    @DisplayName("Redis 오류가 나면 허용하고 다음 요청에서 limiter 를 다시 설정한다")
+    void reconfigureAfterRedisFailure() {
+        // given
+        properties.setRedisEnabled(true);
+        given(redissonClient.getObject()).willReturn(client);
+        given(client.getRateLimiter("ACRL:use:account:1000000000")).willReturn(limiter);
+        given(limiter.trySetRate(RateType.OVERALL, 2, 2000, RateIntervalUnit.MILLISECONDS)).willReturn(true);
+        given(limiter.tryAcquire())
+                .willThrow(new IllegalStateException("RateLimiter is not initialized"))
+                .willReturn(true);
+
+        // when
+        rateLimitService.check("use", null, "1000000000");
+        rateLimitService.check("use", null, "1000000000");
+
+        // then
+        verify(limiter, times(2)).trySetRate(RateType.OVERALL, 2, 2000, RateIntervalUnit.MILLISECONDS);
+        verify(limiter, never()).setRate(any(), anyLong(), anyLong(), any());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.RedisTransactionRecord;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RList;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBalancePersisterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RList<Object> queue;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private DailySummaryService dailySummaryService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private BloomFilterService bloomFilterService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private RedisBalancePersister redisBalancePersister;
+
+    @BeforeEach
+    void setUp() {
+        redisBalancePersister = new RedisBalancePersister(redissonClient, accountRepository, transactionRepository,
+                dailySummaryService, outboxService, bloomFilterService, new ShardRouter(new ShardingProperties()),
+                transactionTemplate, objectMapper);
+        given(redissonClient.getList(RedisBalanceService.QUEUE_KEY, StringCodec.INSTANCE)).willReturn(queue);
+        willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(transactionStatus);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("잔액을 snapshot 으로 덮어쓰지 않고 성공한 거래의 합계만 더한다")
+    void applyBalanceDelta() throws Exception {
+        // given
+        given(queue.range(anyInt(), anyInt())).willReturn(Arrays.asList(
+                payload("T1", TransactionType.USE, TransactionResultType.S, 1000L, 9000L),
+                payload("T2", TransactionType.USE, TransactionResultType.F, 50000L, 9000L),
+                payload("T3", TransactionType.CANCEL, TransactionResultType.S, 300L, 9300L)));
+        given(transactionRepository.findByTransactionIdIn(anyList())).willReturn(Collections.emptyList());
+        given(accountRepository.findByAccountNumberIn(anySet())).willReturn(List.of(account()));
+
+        // when
+        int drained = redisBalancePersister.drainBatch();
+
+        // then
+        assertEquals(3, drained);
+        verify(accountRepository, times(1)).addBalance(1L, -700L);
+        verify(transactionRepository, times(1)).saveAll(anyList());
+        verify(queue).trim(3, -1);
+    }
+
+    @Test
+    @DisplayName("이미 저장된 거래는 다시 반영하지 않는다")
+    void skipPersistedTransaction() throws Exception {
+        // given
+        given(queue.range(anyInt(), anyInt())).willReturn(Arrays.asList(
+                payload("T1", TransactionType.USE, TransactionResultType.S, 1000L, 9000L),
+                payload("T2", TransactionType.USE, TransactionResultType.S, 2000L, 7000L)));
+        given(transactionRepository.findByTransactionIdIn(anyList()))
+                .willReturn(List.of(Transaction.builder().transactionId("T1").build()));
+        given(accountRepository.findByAccountNumberIn(anySet())).willReturn(List.of(account()));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        redisBalancePersister.drainBatch();
+
+        // then
+        verify(accountRepository, times(1)).addBalance(1L, -2000L);
+        verify(transactionRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("T2", captor.getValue().get(0).getTransactionId());
+    }
+
+    @Test
+    @DisplayName("실패 거래만 있으면 잔액을 바꾸지 않는다")
+    void failedTransactionKeepsBalance() throws Exception {
+        // given
+        given(queue.range(anyInt(), anyInt())).willReturn(List.of(
+                payload("T1", TransactionType.USE, TransactionResultType.F, 50000L, 9000L)));
+        given(transactionRepository.findByTransactionIdIn(anyList())).willReturn(Collections.emptyList());
+        given(accountRepository.findByAccountNumberIn(anySet())).willReturn(List.of(account()));
+
+        // when
+        redisBalancePersister.drainBatch();
+
+        // then
+        verify(accountRepository, never()).addBalance(anyLong(), anyLong());
+        verify(transactionRepository, times(1)).saveAll(anyList());
+    }
+
+    private Object payload(String transactionId, TransactionType transactionType,
+                           TransactionResultType transactionResultType, Long amount, Long balanceSnapshot)
+            throws Exception {
+        return objectMapper.writeValueAsString(RedisTransactionRecord.builder()
+                .accountNumber("1000000000")
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Account account() {
+        return Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .balance(10000L)
+                .build();
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import redis.embedded.RedisServer;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBalanceServiceTest {
+    private static final int REDIS_PORT = 16379;
+
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private RedisBalanceCache redisBalanceCache;
+    private RedisBalanceService redisBalanceService;
+
+    @BeforeAll
+    static void startRedis() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redissonClient.getKeys().flushall();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("redissonClient", redissonClient);
+        redisBalanceCache = new RedisBalanceCache(beanFactory.getBeanProvider(RedissonClient.class), true);
+        redisBalanceService = new RedisBalanceService(redissonClient, accountRepository, transactionRepository,
+                new ShardRouter(new ShardingProperties()), redisBalanceCache,
+                new AccountMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void successUseBalance() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(12L, 10000L)));
+
+        // when
+        TransactionDto first = redisBalanceService.useBalance(12L, "1000000000", 1000L);
+        TransactionDto second = redisBalanceService.useBalance(12L, "1000000000", 2000L);
+
+        // then
+        verify(accountRepository, times(1)).findByAccountNumber("1000000000");
+        assertEquals(TransactionResultType.S, first.getTransactionResultType());
+        assertEquals(TransactionType.USE, first.getTransactionType());
+        assertEquals(9000L, first.getBalanceSnapshot());
+        assertEquals(7000L, second.getBalanceSnapshot());
+        assertEquals(2, queueSize());
+    }
+
+    @Test
+    @DisplayName("잔액 부족 - 실패 기록만 적재")
+    void useBalanceAmountExceedBalance() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(12L, 500L)));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceService.useBalance(12L, "1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        assertEquals("500", redissonClient.getMap("ACBL:1000000000", StringCodec.INSTANCE).get("balance"));
+        assertEquals(1, queueSize());
+    }
+
+    @Test
+    @DisplayName("계좌 소유주 불일치 - 잔액 사용 실패")
+    void useBalanceUserAccountUnMatch() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(13L, 10000L)));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceService.useBalance(12L, "1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+    }
+
+    @Test
+    void successCancelBalance() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(12L, 10000L)));
+        TransactionDto used = redisBalanceService.useBalance(12L, "1000000000", 1000L);
+
+        // when
+        TransactionDto canceled = redisBalanceService.cancelBalance(used.getTransactionId(), "1000000000", 1000L);
+
+        // then
+        assertEquals(TransactionType.CANCEL, canceled.getTransactionType());
+        assertEquals(10000L, canceled.getBalanceSnapshot());
+        assertEquals(2, queueSize());
+    }
+
+    @Test
+    @DisplayName("DB 에만 있는 원거래 취소")
+    void cancelBalanceLoadsTransactionFromDatabase() {
+        // given
+        Account account = account(12L, 10000L);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionId("transactionId")
+                        .amount(1000L)
+                        .transactedAt(LocalDateTime.now())
+                        .build()));
+
+        // when
+        TransactionDto canceled = redisBalanceService.cancelBalance("transactionId", "1000000000", 1000L);
+
+        // then
+        assertEquals(11000L, canceled.getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("부분 취소 불가 - 잔액 취소 실패")
+    void cancelBalanceCancelFully() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(12L, 10000L)));
+        TransactionDto used = redisBalanceService.useBalance(12L, "1000000000", 1000L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceService.cancelBalance(used.getTransactionId(), "1000000000", 500L));
+
+        // then
+        assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("승인으로 잡힌 금액은 쓸 수 없다")
+    void useBalanceExceedAvailableBalance() {
+        // given
+        Account account = account(12L, 10000L);
+        account.setHeldBalance(9500L);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceService.useBalance(12L, "1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("DB 경로의 변경이 Redis 잔액에 반영된다")
+    void applyDatabaseChange() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(12L, 10000L)));
+        redisBalanceService.useBalance(12L, "1000000000", 1000L);
+
+        // when
+        redisBalanceCache.applyChange(account(12L, 10000L), -2000L, 5000L);
+        redisBalanceCache.updateStatus("1000000000", AccountStatus.UNREGISTERED);
+
+        // then
+        assertEquals("7000", redissonClient.getMap("ACBL:1000000000", StringCodec.INSTANCE).get("balance"));
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceService.useBalance(12L, "1000000000", 1000L));
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Redis 에서 쓴 잔액은 DB 에 반영되기 전이라도 DB 경로에서 다시 쓸 수 없다")
+    void rejectDatabaseDebitAfterRedisDebit() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(12L, 10000L)));
+        redisBalanceService.useBalance(12L, "1000000000", 10000L);
+
+        // when
+        // DB 의 잔액은 아직 10000 이다.
+        AccountException exception = assertThrows(AccountException.class,
+                () -> redisBalanceCache.applyChange(account(12L, 10000L), -10000L, 0L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        assertEquals("0", redissonClient.getMap("ACBL:1000000000", StringCodec.INSTANCE).get("balance"));
+    }
+
+    @Test
+    @DisplayName("Redis 에 올라오지 않은 계좌는 변경 전 계좌로 채운 뒤 반영한다")
+    void loadBeforeDatabaseChange() {
+        // given
+        // when
+        redisBalanceCache.applyChange(account(12L, 10000L), -2000L, 0L);
+        redisBalanceCache.applyChange(account(12L, 8000L), 500L, 0L);
+
+        // then
+        assertEquals("8500", redissonClient.getMap("ACBL:1000000000", StringCodec.INSTANCE).get("balance"));
+    }
+
+    @Test
+    @DisplayName("DB 경로가 rollback 되면 먼저 뺀 잔액을 되돌리고, 늘리는 변경은 commit 된 뒤에만 더한다")
+    void revertOnRollback() {
+        // given
+        redisBalanceCache.load(account(12L, 10000L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        try {
+            redisBalanceCache.applyChange(account(12L, 10000L), -2000L, 0L);
+            redisBalanceCache.applyChange(account(12L, 10000L), 3000L, 0L);
+            assertEquals("8000", redissonClient.getMap("ACBL:1000000000", StringCodec.INSTANCE).get("balance"));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        assertEquals("10000", redissonClient.getMap("ACBL:1000000000", StringCodec.INSTANCE).get("balance"));
+    }
+
+    @Test
+    @DisplayName("원거래 hash 는 취소 가능 기간이 지나면 지워진다")
+    void expireTransactionHash() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(12L, 10000L)));
+
+        // when
+        TransactionDto transaction = redisBalanceService.useBalance(12L, "1000000000", 1000L);
+
+        // then
+        long ttl = redissonClient.getKeys().remainTimeToLive("ACTX:" + transaction.getTransactionId());
+        assertTrue(ttl > TimeUnit.DAYS.toMillis(365));
+    }
+
+    private int queueSize() {
+        return redissonClient.getList(RedisBalanceService.QUEUE_KEY, StringCodec.INSTANCE).size();
+    }
+
+    private Account account(Long userId, Long balance) {
+        return Account.builder()
+                .accountUser(AccountUser.builder().id(userId).name("정민").build())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(balance)
+                .build();
+    }
+}
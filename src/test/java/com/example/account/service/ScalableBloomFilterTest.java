@@ -0,0 +1,67 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("넣은 값은 용량을 넘겨도 항상 있다고 답함")
+    void noFalseNegativeAfterGrowing() {
+        // given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("account-" + i);
+        }
+
+        // then
+        assertTrue(filter.layerCount() > 1);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("account-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("층이 늘어나도 오탐률은 설정값 근처에 머묾")
+    void falsePositiveRateStaysBounded() {
+        // given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        // when
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("missing-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // then
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("같은 값을 여러 번 넣어도 크기는 한 번만 늘어남")
+    void duplicateAddDoesNotGrow() {
+        // given
+        ScalableBloomFilter filter = new ScalableBloomFilter(10, 0.01);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            filter.add("1000000000");
+        }
+
+        // then
+        assertEquals(1, filter.approximateSize());
+        assertEquals(1, filter.layerCount());
+    }
+}
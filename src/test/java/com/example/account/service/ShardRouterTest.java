@@ -0,0 +1,95 @@
+package com.example.account.service;
+
+import com.example.account.aop.ShardContext;
+import com.example.account.config.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+    private final ShardRouter shardRouter = new ShardRouter(properties(true, Map.of()));
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.shutdown();
+    }
+
+    @Test
+    @DisplayName("sharding 을 끄면 모든 계좌와 거래가 shard 0")
+    void singleShardWhenDisabled() {
+        // given
+        ShardRouter disabled = new ShardRouter(properties(false, Map.of()));
+        // when
+        // then
+        assertEquals(1, disabled.getShardCount());
+        assertEquals(0, disabled.shardOf("1000000001"));
+        assertEquals(1000000000L, disabled.nextAccountNumber(0, null));
+        assertEquals(1000000013L, disabled.nextAccountNumber(0, 1000000012L));
+    }
+
+    @Test
+    void accountNumberMapsToItsShard() {
+        // given
+        // when
+        long first = shardRouter.nextAccountNumber(1, null);
+        long next = shardRouter.nextAccountNumber(1, first);
+        // then
+        assertEquals(1000000001L, first);
+        assertEquals(1000000003L, next);
+        assertEquals(1, shardRouter.shardOf(String.valueOf(next)));
+        assertEquals(0, shardRouter.nextAccountNumber(0, null) % 2);
+    }
+
+    @Test
+    @DisplayName("옮긴 bucket 은 지정한 shard 로")
+    void movedBucket() {
+        // given
+        ShardRouter moved = new ShardRouter(properties(true, Map.of(512, 1)));
+        // when
+        // then
+        assertEquals(1, moved.shardOf("1000000000"));
+        assertEquals(1, moved.shardOf("1000001024"));
+        assertEquals(0, moved.shardOf("1000000002"));
+        assertEquals(1000000002L, moved.nextAccountNumber(0, 999999999L));
+        moved.shutdown();
+    }
+
+    @Test
+    void transactionIdCarriesShard() {
+        // given
+        String transactionId = TransactionIdGenerator.generate(LocalDateTime.now(), 1);
+        // when
+        // then
+        assertEquals(1, shardRouter.shardOfTransaction(transactionId));
+        assertEquals(0, shardRouter.shardOfTransaction("96d8361cdb794f93afa7ed64d984d185"));
+    }
+
+    @Test
+    @DisplayName("fan-out 은 shard 를 지정한 채 실행하고 shard 순서대로 돌려준다")
+    void fanOut() {
+        // given
+        // when
+        List<Integer> shards = shardRouter.fanOut(shard -> ShardContext.get());
+        // then
+        assertEquals(List.of(0, 1), shards);
+        assertNull(ShardContext.get());
+    }
+
+    private static ShardingProperties properties(boolean enabled, Map<Integer, Integer> movedBuckets) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(enabled);
+        properties.setMovedBuckets(movedBuckets);
+        ShardingProperties.Shard shard0 = new ShardingProperties.Shard();
+        shard0.setUrl("jdbc:h2:mem:shard0");
+        ShardingProperties.Shard shard1 = new ShardingProperties.Shard();
+        shard1.setUrl("jdbc:h2:mem:shard1");
+        properties.setShards(List.of(shard0, shard1));
+        return properties;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+    @Test
+    void partitionKeyRoundTrip() {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 3, 15, 10, 0);
+        // when
+        String transactionId = TransactionIdGenerator.generate(transactedAt);
+        // then
+        assertEquals(40, transactionId.length());
+        assertTrue(transactionId.startsWith("20220300"));
+        assertEquals(202203, TransactionIdGenerator.partitionKeyOf(transactionId));
+    }
+
+    @Test
+    void shardRoundTrip() {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 3, 15, 10, 0);
+        // when
+        String transactionId = TransactionIdGenerator.generate(transactedAt, 7);
+        // then
+        assertTrue(transactionId.startsWith("20220307"));
+        assertEquals(7, TransactionIdGenerator.shardOf(transactionId));
+        assertEquals(202203, TransactionIdGenerator.partitionKeyOf(transactionId));
+    }
+
+    @Test
+    void unshardedIdHasPartitionButNoShard() {
+        String transactionId = "202203" + "96d8361cdb794f93afa7ed64d984d185";
+
+        assertEquals(202203, TransactionIdGenerator.partitionKeyOf(transactionId));
+        assertNull(TransactionIdGenerator.shardOf(transactionId));
+    }
+
+    @Test
+    void legacyIdHasNoPartition() {
+        assertNull(TransactionIdGenerator.partitionKeyOf("96d8361cdb794f93afa7ed64d984d185"));
+        assertNull(TransactionIdGenerator.partitionKeyOf((String) null));
+        assertNull(TransactionIdGenerator.shardOf(null));
+    }
+}
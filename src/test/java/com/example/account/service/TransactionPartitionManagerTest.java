@@ -0,0 +1,150 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CREATE TABLE 은 H2 에서 트랜잭션을 commit 하므로 테스트 트랜잭션 없이 실행하고 끝나면 지운다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionPartitionManagerTest {
+    private static final int PARTITION_KEY = 202401;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private TransactionPartitionManager transactionPartitionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionPartitionManager = new TransactionPartitionManager(
+                jdbcTemplate, new ShardRouter(new ShardingProperties()), new TransactionTemplate(transactionManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transaction_p" + PARTITION_KEY);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transaction_p202402");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transaction_plan");
+    }
+
+    @Test
+    @DisplayName("한 달치 거래를 파티션 테이블로 옮기고 거래 ID 로 찾는다")
+    void detach() {
+        // given
+        Account account = account("1000000000");
+        Transaction old = transaction(account, LocalDateTime.of(2024, 1, 15, 12, 0));
+        transaction(account, LocalDateTime.of(2024, 1, 31, 23, 59));
+        transaction(account, LocalDateTime.now());
+
+        // when
+        transactionPartitionManager.detach(PARTITION_KEY);
+
+        // then
+        assertEquals(1L, transactionRepository.count());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction_p" + PARTITION_KEY, Integer.class));
+        assertTrue(transactionPartitionManager.getDetachedPartitions().contains(PARTITION_KEY));
+
+        Optional<TransactionDto> detached = transactionPartitionManager.findDetached(old.getTransactionId());
+        assertTrue(detached.isPresent());
+        assertEquals("1000000000", detached.get().getAccountNumber());
+        assertEquals(1000L, detached.get().getAmount());
+    }
+
+    @Test
+    @DisplayName("다시 실행해도 이미 옮긴 거래를 중복으로 넣지 않는다")
+    void detachTwice() {
+        // given
+        Account account = account("1000000000");
+        transaction(account, LocalDateTime.of(2024, 1, 15, 12, 0));
+        transactionPartitionManager.detach(PARTITION_KEY);
+        transaction(account, LocalDateTime.of(2024, 1, 20, 12, 0));
+
+        // when
+        transactionPartitionManager.detach(PARTITION_KEY);
+
+        // then
+        assertEquals(0L, transactionRepository.count());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction_p" + PARTITION_KEY, Integer.class));
+    }
+
+    @Test
+    @DisplayName("이름만 비슷한 테이블은 파티션으로 읽지 않는다")
+    void loadDetachedPartitions() {
+        // given
+        jdbcTemplate.execute("CREATE TABLE transaction_p202402 (id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE transaction_plan (id BIGINT)");
+
+        // when
+        transactionPartitionManager.loadDetachedPartitions();
+
+        // then
+        assertEquals(Set.of(202402), transactionPartitionManager.getDetachedPartitions());
+    }
+
+    // data.sql 의 사용자를 쓴다. 새로 저장하면 sequence 가 data.sql 의 id 와 겹친다.
+    private Account account(String accountNumber) {
+        return accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber(accountNumber)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Transaction transaction(Account account, LocalDateTime transactedAt) {
+        return transactionRepository.save(Transaction.builder()
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(TransactionIdGenerator.generate(transactedAt))
+                .transactedAt(transactedAt)
+                .partitionKey(TransactionIdGenerator.partitionKeyOf(transactedAt))
+                .build());
+    }
+}
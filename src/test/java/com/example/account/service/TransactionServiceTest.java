@@ -1,15 +1,21 @@
 package com.example.account.service;
 
+import com.example.account.config.ShardingProperties;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.BalanceHold;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.TransactionDto;
 import com.example.account.exception.AccountException;
+import com.example.account.metrics.AccountMetrics;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.BalanceHoldRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -26,6 +33,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -40,6 +49,36 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionPartitionManager transactionPartitionManager;
+
+    @Mock
+    private ColdTransactionStore coldTransactionStore;
+
+    @Mock
+    private DailySummaryService dailySummaryService;
+
+    @Mock
+    private AccountOwnershipCache accountOwnershipCache;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private BloomFilterService bloomFilterService;
+
+    @Mock
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Mock
+    private RedisBalanceCache redisBalanceCache;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -50,9 +89,6 @@ class TransactionServiceTest {
                 .id(12L)
                 .name("정민")
                 .build();
-
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
         Account account = Account.builder()
                 .accountUser(user)
                 .accountNumber("1000000000")
@@ -75,7 +111,7 @@ class TransactionServiceTest {
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
 
         // when
-        TransactionDto transactionDto = transactionService.useBalance(1L, "1000000000", 1000L);
+        TransactionDto transactionDto = transactionService.useBalance("1000000000", 1000L);
 
         // then
         verify(transactionRepository, times(1)).save(captor.capture());
@@ -85,6 +121,101 @@ class TransactionServiceTest {
         assertEquals(TransactionType.USE, transactionDto.getTransactionType());
         assertEquals(9000L, transactionDto.getBalanceSnapshot());
         assertEquals(1000L, transactionDto.getAmount());
+        verify(dailySummaryService, times(1)).record(any());
+        verify(outboxService, times(1)).append(any());
+        verify(accountUserRepository, never()).findById(anyLong());
+        verify(redisBalanceCache, times(1)).applyChange(account, -1000L, 0L);
+    }
+
+    @Test
+    @DisplayName("Redis 잔액에서 모자라면 DB 잔액이 남아 있어도 쓰지 않는다")
+    void useBalanceRejectedByRedisBalance() {
+        // given
+        Account account = Account.builder()
+                .accountUser(AccountUser.builder().id(12L).name("정민").build())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE))
+                .given(redisBalanceCache).applyChange(account, -1000L, 0L);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance("1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("사용 전 검증 성공 - 소유 확인 결과를 남긴다")
+    void validateUseBalance() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("정민")
+                .build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user)
+                        .accountNumber("1000000000")
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(10000L)
+                        .build()));
+
+        // when
+        transactionService.validateUseBalance(12L, "1000000000", 1000L);
+
+        // then
+        verify(accountOwnershipCache, times(1)).put(12L, "1000000000");
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("소유가 확인된 계좌는 사용자 조회 없이 검증")
+    void useBalanceKnownOwnerSkipsUserLookup() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("정민")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(accountOwnershipCache.isOwner(12L, "1000000000"))
+                .willReturn(true);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        // when
+        transactionService.validateUseBalance(12L, "1000000000", 1000L);
+
+        // then
+        verify(accountUserRepository, never()).findById(anyLong());
+        verify(accountOwnershipCache, times(1)).put(12L, "1000000000");
+    }
+
+    @Test
+    @DisplayName("없는 계좌 - DB 조회 없이 잔액 사용 실패")
+    void useBalanceUnknownAccount() {
+        given(bloomFilterService.mightContainAccount(anyString()))
+                .willReturn(false);
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.rejectUnknownAccount("1000000000"));
+
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
     }
 
     @Test
@@ -94,7 +225,7 @@ class TransactionServiceTest {
                 .willReturn(Optional.empty());
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1000000000", 1000L));
+                () -> transactionService.validateUseBalance(1L, "1000000000", 1000L));
 
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
     }
@@ -114,7 +245,7 @@ class TransactionServiceTest {
                 .willReturn(Optional.empty());
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1000000000", 1000L));
+                () -> transactionService.validateUseBalance(1L, "1000000000", 1000L));
 
         assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
     }
@@ -143,7 +274,7 @@ class TransactionServiceTest {
                 .willReturn(Optional.of(account));
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1000000000", 1000L));
+                () -> transactionService.validateUseBalance(1L, "1000000000", 1000L));
 
         assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
     }
@@ -168,14 +299,14 @@ class TransactionServiceTest {
                 .willReturn(Optional.of(account));
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1000000000", 1000L));
+                () -> transactionService.validateUseBalance(1L, "1000000000", 1000L));
 
         assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
     }
 
     @Test
-    @DisplayName("거래 금액이 잔액보다 더 큰 경우")
-    void successUseBalanceAMOUNT_EXCEED_BALANCE() {
+    @DisplayName("거래 금액이 잔액보다 더 큰 경우 - lock 없이 거절")
+    void validateUseBalanceAMOUNT_EXCEED_BALANCE() {
         // given
         AccountUser user = AccountUser.builder()
                 .id(12L)
@@ -195,11 +326,37 @@ class TransactionServiceTest {
 
         // when
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1000000000", 1000L));
+                () -> transactionService.validateUseBalance(1L, "1000000000", 1000L));
 
         assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("검증 후 lock 을 기다리는 사이 잔액이 줄어든 경우")
+    void successUseBalanceAMOUNT_EXCEED_BALANCE() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("정민")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(100L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance("1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("실패 트랜잭션 저장 성공")
     void successUseBalance_Fail() {
@@ -235,6 +392,33 @@ class TransactionServiceTest {
 
     }
 
+    @Test
+    @DisplayName("매입 실패는 사용이 아닌 매입 실패 거래로 저장")
+    void saveFailedCaptureTransaction() {
+        // given
+        Account account = Account.builder()
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        // when
+        transactionService.saveFailedHoldTransaction(TransactionType.CAPTURE, "1000000000", 1000L);
+
+        // then
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(TransactionType.CAPTURE, captor.getValue().getTransactionType());
+        assertEquals(TransactionResultType.F, captor.getValue().getTransactionResultType());
+        assertEquals(1000L, captor.getValue().getAmount());
+    }
+
     @Test
     void successCancelBalance() {
         // given
@@ -251,22 +435,9 @@ class TransactionServiceTest {
                 .balance(9000L)
                 .build();
 
-        Transaction transaction = Transaction.builder()
-                .account(account)
-                .transactionType(TransactionType.USE)
-                .transactionResultType(TransactionResultType.S)
-                .transactedAt(LocalDateTime.now())
-                .amount(1000L)
-                .balanceSnapshot(9000L)
-                .build();
-
-
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
 
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
-
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
@@ -280,10 +451,11 @@ class TransactionServiceTest {
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
 
         // when
-        TransactionDto transactionDto = transactionService.cancelBalance("transactionId", "1000000000", 1000L);
+        TransactionDto transactionDto = transactionService.cancelBalance("1000000000", 1000L);
 
         // then
         verify(transactionRepository, times(1)).save(captor.capture());
+        verify(transactionRepository, never()).findByTransactionId(anyString());
         assertEquals(1000L, captor.getValue().getAmount());
         assertEquals(10000L, captor.getValue().getBalanceSnapshot());
         assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
@@ -292,6 +464,33 @@ class TransactionServiceTest {
         assertEquals(1000L, transactionDto.getAmount());
     }
 
+    @Test
+    @DisplayName("취소 전 검증 성공 - 원거래 계좌는 따로 조회하지 않는다")
+    void validateCancelBalance() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(9000L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .transactedAt(LocalDateTime.now())
+                        .amount(1000L)
+                        .balanceSnapshot(9000L)
+                        .build()));
+
+        // when
+        transactionService.validateCancelBalance("transactionId", "1000000000", 1000L);
+
+        // then
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+    }
+
     @Test
     @DisplayName("해당 계좌 없음 - 잔액 취소 실패")
     void cancelBalanceAccountNotFound() {
@@ -326,7 +525,7 @@ class TransactionServiceTest {
 
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionId", "1000000000", 1000L));
+                () -> transactionService.validateCancelBalance("transactionId", "2000000000", 1000L));
 
         assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
     }
@@ -339,7 +538,7 @@ class TransactionServiceTest {
 
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionId", "1000000000", 1000L));
+                () -> transactionService.validateCancelBalance("transactionId", "1000000000", 1000L));
 
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
@@ -363,7 +562,7 @@ class TransactionServiceTest {
         Account account2 = Account.builder()
                 .id(2L)
                 .accountUser(user)
-                .accountNumber("1000000000")
+                .accountNumber("2000000000")
                 .accountStatus(AccountStatus.IN_USE)
                 .balance(9000L)
                 .build();
@@ -386,7 +585,7 @@ class TransactionServiceTest {
 
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionId", "1000000000", 1000L));
+                () -> transactionService.validateCancelBalance("transactionId", "1000000000", 1000L));
 
         assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, exception.getErrorCode());
     }
@@ -417,15 +616,12 @@ class TransactionServiceTest {
                 .build();
 
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
 
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionId", "1000000000", 500L));
+                () -> transactionService.validateCancelBalance("transactionId", "1000000000", 500L));
 
         assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
     }
@@ -456,22 +652,47 @@ class TransactionServiceTest {
                 .build();
 
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
 
 
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionId", "1000000000", 1000L));
+                () -> transactionService.validateCancelBalance("transactionId", "1000000000", 1000L));
 
         assertEquals(ErrorCode.TOO_OLD_ORDER_TO_CANCEL, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("떼어낸 파티션의 거래 취소 - 취소 기간이 지나 실패")
+    void cancelBalanceDetachedTransaction() {
+        // given
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionPartitionManager.findDetached(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(1000L)
+                        .balanceSnapshot(9000L)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now().minusMonths(14L))
+                        .build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.validateCancelBalance("transactionId", "1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.TOO_OLD_ORDER_TO_CANCEL, exception.getErrorCode());
+        verify(coldTransactionStore, never()).find(anyString());
+    }
+
     @Test
     void queryTransaction() {
         // given
+        given(bloomFilterService.mightContainTransaction(anyString()))
+                .willReturn(true);
         AccountUser user = AccountUser.builder()
                 .id(12L)
                 .name("정민")
@@ -507,6 +728,8 @@ class TransactionServiceTest {
     @Test
     void queryTransaction_fail() {
         // given
+        given(bloomFilterService.mightContainTransaction(anyString()))
+                .willReturn(true);
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.empty());
         // when
@@ -514,4 +737,263 @@ class TransactionServiceTest {
         AccountException exception = assertThrows(AccountException.class, () -> transactionService.queryTransaction("transactionId"));
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("떼어낸 파티션의 거래 조회")
+    void queryTransaction_detachedPartition() {
+        // given
+        given(bloomFilterService.mightContainTransaction(anyString()))
+                .willReturn(true);
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionPartitionManager.findDetached(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(1000L)
+                        .transactionId("202301transactionId")
+                        .build()));
+        // when
+        TransactionDto transactionDto = transactionService.queryTransaction("202301transactionId");
+        // then
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        assertEquals(1000L, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("Bloom filter 에 없는 거래 ID 는 조회 없이 실패")
+    void queryTransaction_definiteMiss() {
+        // given
+        given(bloomFilterService.mightContainTransaction(anyString()))
+                .willReturn(false);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.queryTransaction("transactionId"));
+
+        // then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        verify(transactionRepository, never()).findByTransactionId(anyString());
+        verify(transactionPartitionManager, never()).findDetached(anyString());
+    }
+
+    @Test
+    @DisplayName("승인 성공 - 장부 잔액은 그대로 두고 보류 금액만 늘린다")
+    void successAuthorizeBalance() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<BalanceHold> captor = ArgumentCaptor.forClass(BalanceHold.class);
+
+        // when
+        HoldDto holdDto = transactionService.authorizeBalance("1000000000", 3000L);
+
+        // then
+        verify(balanceHoldRepository, times(1)).save(captor.capture());
+        verify(accountRepository, times(1)).addHeldBalance(1L, 3000L);
+        verify(transactionRepository, never()).save(any());
+        assertEquals(HoldStatus.HELD, captor.getValue().getStatus());
+        assertEquals(3000L, captor.getValue().getAmount());
+        assertEquals(10000L, account.getBalance());
+        assertEquals("1000000000", holdDto.getAccountNumber());
+        assertEquals(40, holdDto.getHoldId().length());
+    }
+
+    @Test
+    @DisplayName("승인된 금액을 빼면 잔액이 부족한 경우 - 승인 실패")
+    void authorizeBalanceAMOUNT_EXCEED_BALANCE() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .heldBalance(9500L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.authorizeBalance("1000000000", 1000L));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(accountRepository, never()).addHeldBalance(anyLong(), anyLong());
+        verify(balanceHoldRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("유효 기간이 지난 승인 - lock 없이 매입 거절")
+    void validateCaptureBalanceHOLD_EXPIRED() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .balance(10000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(BalanceHold.builder()
+                        .id(7L)
+                        .account(account)
+                        .amount(3000L)
+                        .status(HoldStatus.HELD)
+                        .expiresAt(LocalDateTime.now().minusMinutes(1))
+                        .build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.validateCaptureBalance("holdId", "1000000000", 3000L));
+
+        // then
+        assertEquals(ErrorCode.HOLD_EXPIRED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("매입 성공 - 매입 금액만 빼고 승인 금액 전체를 푼다")
+    void successCaptureBalance() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .heldBalance(3000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(BalanceHold.builder()
+                        .id(7L)
+                        .account(account)
+                        .amount(3000L)
+                        .status(HoldStatus.HELD)
+                        .expiresAt(LocalDateTime.now().plusDays(1))
+                        .build()));
+        given(balanceHoldRepository.capture(anyLong(), any()))
+                .willReturn(1);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        // when
+        TransactionDto transactionDto = transactionService.captureBalance("1000000000", "holdId", 2000L);
+
+        // then
+        verify(transactionRepository, times(1)).save(captor.capture());
+        verify(accountRepository, times(1)).addHeldBalance(1L, -3000L);
+        assertEquals(8000L, account.getBalance());
+        assertEquals(8000L, captor.getValue().getBalanceSnapshot());
+        assertEquals(TransactionType.USE, transactionDto.getTransactionType());
+        assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
+        assertEquals(2000L, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("검증 후 lock 을 기다리는 사이 승인이 취소된 경우 - 매입 실패")
+    void captureBalanceHOLD_NOT_ACTIVE() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .balance(10000L)
+                .heldBalance(3000L)
+                .build();
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(BalanceHold.builder()
+                        .id(7L)
+                        .account(account)
+                        .amount(3000L)
+                        .status(HoldStatus.HELD)
+                        .build()));
+        given(balanceHoldRepository.capture(anyLong(), any()))
+                .willReturn(0);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.captureBalance("1000000000", "holdId", 3000L));
+
+        // then
+        assertEquals(ErrorCode.HOLD_NOT_ACTIVE, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+        // 승인 행을 먼저 잠그므로 닫힌 승인이면 계좌는 읽지도 않는다.
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+        verify(accountRepository, never()).addHeldBalance(anyLong(), anyLong());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("승인 취소 성공 - 잔액과 거래는 그대로 두고 보류 금액만 푼다")
+    void successVoidBalance() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .balance(10000L)
+                .heldBalance(3000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(BalanceHold.builder()
+                        .id(7L)
+                        .holdId("holdId")
+                        .account(account)
+                        .amount(3000L)
+                        .status(HoldStatus.HELD)
+                        .build()));
+        given(balanceHoldRepository.close(anyLong(), any(), any()))
+                .willReturn(1);
+
+        // when
+        HoldDto holdDto = transactionService.voidBalance("holdId", "1000000000");
+
+        // then
+        verify(balanceHoldRepository, times(1)).close(eq(7L), eq(HoldStatus.VOIDED), any());
+        verify(accountRepository, times(1)).addHeldBalance(1L, -3000L);
+        verify(transactionRepository, never()).save(any());
+        assertEquals(HoldStatus.VOIDED, holdDto.getStatus());
+        assertEquals(10000L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("이미 닫힌 승인 취소 - 보류 금액을 다시 풀지 않는다")
+    void voidBalanceHOLD_NOT_ACTIVE() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000000")
+                .balance(10000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(BalanceHold.builder()
+                        .id(7L)
+                        .account(account)
+                        .amount(3000L)
+                        .status(HoldStatus.CAPTURED)
+                        .build()));
+        given(balanceHoldRepository.close(anyLong(), any(), any()))
+                .willReturn(0);
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.voidBalance("holdId", "1000000000"));
+
+        // then
+        assertEquals(ErrorCode.HOLD_NOT_ACTIVE, exception.getErrorCode());
+        verify(accountRepository, never()).addHeldBalance(anyLong(), anyLong());
+    }
+}